@@ -0,0 +1,219 @@
+package me.ccampo.maven.git.version.benchmarks;
+
+import org.apache.maven.artifact.DefaultArtifact;
+import org.apache.maven.artifact.handler.DefaultArtifactHandler;
+import org.apache.maven.model.Model;
+import org.apache.maven.model.io.xpp3.MavenXpp3Reader;
+import org.apache.maven.project.MavenProject;
+import org.codehaus.plexus.util.FileUtils;
+import org.eclipse.jgit.api.Git;
+import org.eclipse.jgit.lib.PersonIdent;
+
+import java.io.File;
+import java.io.FileReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Generates the repositories and reactors the benchmarks run against. Everything is created locally, under a
+ * temporary directory, so results don't depend on network access or on the state of this repository.
+ */
+public final class Fixtures {
+
+    public static final String GROUP_ID = "com.example";
+    public static final String VERSION = "1.0.0-SNAPSHOT";
+
+    private static final PersonIdent AUTHOR = new PersonIdent("bench", "bench@example.com");
+
+    private Fixtures() {
+    }
+
+    public static File createTempDir(final String prefix) throws IOException {
+        return Files.createTempDirectory(prefix).toFile();
+    }
+
+    public static void delete(final File dir) throws IOException {
+        if (dir != null) {
+            FileUtils.deleteDirectory(dir);
+        }
+    }
+
+    /**
+     * Creates a repository with a work tree of {@code files} tracked files, {@code commits} commits of history, and a
+     * version tag on every {@code tagEvery}th commit.
+     *
+     * @param dirty whether to leave an uncommitted modification in the work tree.
+     */
+    public static void createRepository(
+            final File dir,
+            final int files,
+            final int commits,
+            final int tagEvery,
+            final boolean dirty
+    ) throws Exception {
+        try (final Git git = Git.init().setDirectory(dir).call()) {
+            // Spread the files over directories, like a real source tree
+            for (int i = 0; i < files; i++) {
+                write(new File(dir, "src/dir" + (i % 100) + "/File" + i + ".java"), "class File" + i + " {}\n");
+            }
+            git.add().addFilepattern(".").call();
+
+            final File changes = new File(dir, "CHANGES");
+            int tag = 0;
+            for (int i = 0; i < commits; i++) {
+                write(changes, "change " + i + "\n");
+                git.add().addFilepattern(changes.getName()).call();
+                git.commit().setMessage("commit " + i).setAuthor(AUTHOR).setCommitter(AUTHOR).call();
+                if (i % tagEvery == 0) {
+                    git.tag().setName("1." + (tag / 1000) + "." + (tag % 1000)).setAnnotated(false).call();
+                    tag++;
+                }
+            }
+
+            // Build output and the POMs generated by the extension
+            write(new File(dir, ".gitignore"), "target/\npom.xml.new-version\n");
+            git.add().addFilepattern(".gitignore").call();
+            git.commit().setMessage("ignore").setAuthor(AUTHOR).setCommitter(AUTHOR).call();
+
+            if (dirty) {
+                write(new File(dir, "src/dir0/File0.java"), "class File0 { /* uncommitted */ }\n");
+            }
+        }
+    }
+
+    /**
+     * Writes an aggregator POM and {@code modules} child POMs below {@code dir}, all configuring the plugin with the
+     * given strategy through their parent.
+     *
+     * @param dependencies number of (external) dependencies declared by each module, to control POM size.
+     */
+    public static void createReactor(
+            final File dir,
+            final int modules,
+            final String strategyHint,
+            final int dependencies
+    ) throws IOException {
+        final StringBuilder moduleList = new StringBuilder();
+        for (int i = 0; i < modules; i++) {
+            moduleList.append("        <module>module-").append(i).append("</module>\n");
+        }
+
+        write(new File(dir, "pom.xml"), "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n" +
+                "<project>\n" +
+                "    <modelVersion>4.0.0</modelVersion>\n" +
+                "    <groupId>" + GROUP_ID + "</groupId>\n" +
+                "    <artifactId>parent</artifactId>\n" +
+                "    <version>" + VERSION + "</version>\n" +
+                "    <packaging>pom</packaging>\n" +
+                "    <modules>\n" + moduleList + "    </modules>\n" +
+                "    <build>\n" +
+                "        <plugins>\n" +
+                "            <plugin>\n" +
+                "                <groupId>me.ccampo</groupId>\n" +
+                "                <artifactId>git-version-maven-plugin</artifactId>\n" +
+                "                <version>0.1.0</version>\n" +
+                "                <extensions>true</extensions>\n" +
+                "                <configuration>\n" +
+                "                    <strategy hint=\"" + strategyHint + "\"/>\n" +
+                "                    <updateDependencies>true</updateDependencies>\n" +
+                "                </configuration>\n" +
+                "            </plugin>\n" +
+                "        </plugins>\n" +
+                "    </build>\n" +
+                "</project>\n");
+
+        for (int i = 0; i < modules; i++) {
+            write(new File(dir, "module-" + i + "/pom.xml"), createModulePom("module-" + i, dependencies, i > 0));
+        }
+    }
+
+    /**
+     * @return the contents of a module POM inheriting from the reactor parent.
+     */
+    public static String createModulePom(
+            final String artifactId,
+            final int dependencies,
+            final boolean dependsOnFirstModule
+    ) {
+        final StringBuilder pom = new StringBuilder("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n" +
+                "<project>\n" +
+                "    <modelVersion>4.0.0</modelVersion>\n" +
+                "    <!-- Comments are dropped when the model is rewritten -->\n" +
+                "    <parent>\n" +
+                "        <groupId>" + GROUP_ID + "</groupId>\n" +
+                "        <artifactId>parent</artifactId>\n" +
+                "        <version>" + VERSION + "</version>\n" +
+                "    </parent>\n" +
+                "    <artifactId>" + artifactId + "</artifactId>\n" +
+                "    <dependencies>\n");
+        if (dependsOnFirstModule) {
+            pom.append(dependency(GROUP_ID, "module-0", VERSION));
+        }
+        for (int i = 0; i < dependencies; i++) {
+            pom.append(dependency("org.example.lib" + i, "lib-" + i, "1." + i));
+        }
+        pom.append("    </dependencies>\n</project>\n");
+        return pom.toString();
+    }
+
+    /**
+     * Reads the projects of a reactor written by {@link #createReactor}, the way Maven would hand them to the
+     * extension: with their file, artifact, final name and (inherited) plugin configuration set.
+     */
+    public static List<MavenProject> readReactor(final File dir, final int modules) throws Exception {
+        final Model parentModel = read(new File(dir, "pom.xml"));
+        final List<MavenProject> projects = new ArrayList<>(modules + 1);
+        for (int i = 0; i < modules; i++) {
+            final File pom = new File(dir, "module-" + i + "/pom.xml");
+            final Model model = read(pom);
+            model.setGroupId(GROUP_ID);
+            model.setVersion(VERSION);
+            model.setBuild(parentModel.getBuild().clone());
+            projects.add(toProject(model, pom));
+        }
+        projects.add(toProject(parentModel.clone(), new File(dir, "pom.xml")));
+        return projects;
+    }
+
+    private static MavenProject toProject(final Model model, final File pom) {
+        final MavenProject project = new MavenProject(model);
+        project.setFile(pom);
+        project.setArtifact(new DefaultArtifact(
+                model.getGroupId(),
+                model.getArtifactId(),
+                model.getVersion(),
+                "compile",
+                "jar",
+                null,
+                new DefaultArtifactHandler("jar")
+        ));
+        project.getBuild().setFinalName(model.getArtifactId() + "-" + model.getVersion());
+        return project;
+    }
+
+    private static Model read(final File pom) throws Exception {
+        try (final Reader reader = new FileReader(pom)) {
+            return new MavenXpp3Reader().read(reader);
+        }
+    }
+
+    private static String dependency(final String groupId, final String artifactId, final String version) {
+        return "        <dependency>\n" +
+                "            <groupId>" + groupId + "</groupId>\n" +
+                "            <artifactId>" + artifactId + "</artifactId>\n" +
+                "            <version>" + version + "</version>\n" +
+                "        </dependency>\n";
+    }
+
+    private static void write(final File file, final String contents) throws IOException {
+        final File parent = file.getParentFile();
+        if (!parent.isDirectory() && !parent.mkdirs()) {
+            throw new IOException("Cannot create directory " + parent);
+        }
+        Files.write(file.toPath(), contents.getBytes(StandardCharsets.UTF_8));
+    }
+}
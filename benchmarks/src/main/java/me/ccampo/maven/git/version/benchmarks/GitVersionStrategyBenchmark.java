@@ -0,0 +1,78 @@
+package me.ccampo.maven.git.version.benchmarks;
+
+import me.ccampo.maven.git.version.core.VersionException;
+import me.ccampo.maven.git.version.strategy.GitVersionStrategy;
+import org.apache.maven.model.Model;
+import org.apache.maven.project.MavenProject;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.File;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures a single, uncached {@link GitVersionStrategy#getVersion} call against generated repositories: many tags
+ * vs. few tags, shallow vs. deep history, and small vs. large (optionally dirty) work trees.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class GitVersionStrategyBenchmark {
+
+    @Param({"100", "2000"})
+    public int commits;
+
+    @Param({"1", "100"})
+    public int tagEvery;
+
+    @Param({"100", "10000"})
+    public int files;
+
+    @Param({"false", "true"})
+    public boolean dirty;
+
+    private File repository;
+    private MavenProject project;
+
+    @Setup(Level.Trial)
+    public void createRepository() throws Exception {
+        repository = Fixtures.createTempDir("git-version-benchmark");
+        Fixtures.createRepository(repository, files, commits, tagEvery, dirty);
+
+        final Model model = new Model();
+        model.setGroupId(Fixtures.GROUP_ID);
+        model.setArtifactId("benchmark");
+        model.setVersion(Fixtures.VERSION);
+        project = new MavenProject(model);
+        project.setFile(new File(repository, "pom.xml"));
+    }
+
+    @TearDown(Level.Trial)
+    public void deleteRepository() throws Exception {
+        Fixtures.delete(repository);
+    }
+
+    @Benchmark
+    public String getVersion() throws VersionException {
+        // A fresh instance, so neither the per-session nor the persistent cache is involved
+        final GitVersionStrategy strategy = new GitVersionStrategy();
+        strategy.setNonQualifierBranches(GitVersionStrategy.DEFAULT_NON_QUALIFIED_BRANCH);
+        strategy.setPreReleaseStage(GitVersionStrategy.DEFAULT_PRE_RELEASE_STAGE);
+        strategy.setDirtyQualifier(GitVersionStrategy.DEFAULT_DIRTY_QUALIFIER);
+        return strategy.getVersion(project);
+    }
+}
@@ -0,0 +1,82 @@
+package me.ccampo.maven.git.version.benchmarks;
+
+import me.ccampo.maven.git.version.plugin.util.ModelProvider;
+import org.apache.maven.MavenExecutionException;
+import org.apache.maven.model.Model;
+import org.apache.maven.model.io.xpp3.MavenXpp3Writer;
+import org.apache.maven.project.MavenProject;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures reading a module POM through {@link ModelProvider#getModel} and writing the model back out, the two I/O
+ * bound steps the extension performs for every module.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class ModelProviderBenchmark {
+
+    @Param({"10", "1000"})
+    public int dependencies;
+
+    private File dir;
+    private MavenProject project;
+    private Model model;
+    private File newPom;
+
+    @Setup(Level.Trial)
+    public void createPom() throws Exception {
+        dir = Fixtures.createTempDir("model-provider-benchmark");
+        final File pom = new File(dir, "pom.xml");
+        Files.write(pom.toPath(),
+                Fixtures.createModulePom("module", dependencies, true).getBytes(StandardCharsets.UTF_8));
+
+        project = new MavenProject();
+        project.setFile(pom);
+        model = new ModelProvider().getModel(project);
+        newPom = new File(dir, "pom.xml.new-version");
+    }
+
+    @TearDown(Level.Trial)
+    public void deletePom() throws Exception {
+        Fixtures.delete(dir);
+    }
+
+    @Benchmark
+    public Model getModel() throws MavenExecutionException {
+        // A fresh provider, so the POM is actually parsed
+        return new ModelProvider().getModel(project);
+    }
+
+    @Benchmark
+    public File writePom() throws IOException {
+        // The same way the extension writes the new version POM
+        try (final Writer fileWriter = new FileWriter(newPom)) {
+            new MavenXpp3Writer().write(fileWriter, model);
+        }
+        return newPom;
+    }
+}
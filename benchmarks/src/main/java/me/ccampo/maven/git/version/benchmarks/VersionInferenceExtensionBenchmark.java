@@ -0,0 +1,112 @@
+package me.ccampo.maven.git.version.benchmarks;
+
+import me.ccampo.maven.git.version.plugin.VersionInferenceExtension;
+import me.ccampo.maven.git.version.plugin.util.ModelProvider;
+import me.ccampo.maven.git.version.plugin.util.PluginConfig;
+import me.ccampo.maven.git.version.plugin.util.PluginConfigProvider;
+import org.apache.maven.execution.DefaultMavenExecutionRequest;
+import org.apache.maven.execution.DefaultMavenExecutionResult;
+import org.apache.maven.execution.MavenExecutionRequest;
+import org.apache.maven.execution.MavenSession;
+import org.apache.maven.plugin.LegacySupport;
+import org.apache.maven.project.MavenProject;
+import org.codehaus.plexus.DefaultContainerConfiguration;
+import org.codehaus.plexus.DefaultPlexusContainer;
+import org.codehaus.plexus.PlexusConstants;
+import org.codehaus.plexus.logging.Logger;
+import org.codehaus.plexus.logging.console.ConsoleLogger;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.File;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link VersionInferenceExtension#afterProjectsRead} end to end (strategy lookup, inference, POM parsing and
+ * writing) on synthetic reactors, using a real Plexus container to look up and configure strategies.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class VersionInferenceExtensionBenchmark {
+
+    @Param({"10", "100", "1000"})
+    public int modules;
+
+    @Param({"sysprop", "git"})
+    public String strategy;
+
+    @Param({"false", "true"})
+    public boolean parallel;
+
+    private File reactor;
+    private DefaultPlexusContainer container;
+    private MavenSession session;
+    private VersionInferenceExtension extension;
+
+    @Setup(Level.Trial)
+    public void createReactor() throws Exception {
+        reactor = Fixtures.createTempDir("version-inference-benchmark");
+        Fixtures.createReactor(reactor, modules, strategy, 10);
+        if ("git".equals(strategy)) {
+            // Commit the reactor itself, on top of some tagged history
+            Fixtures.createRepository(reactor, 0, 100, 10, false);
+        }
+
+        container = new DefaultPlexusContainer(new DefaultContainerConfiguration()
+                .setClassPathScanning(PlexusConstants.SCANNING_INDEX)
+                .setAutoWiring(true));
+    }
+
+    @TearDown(Level.Trial)
+    public void deleteReactor() throws Exception {
+        container.dispose();
+        Fixtures.delete(reactor);
+    }
+
+    @Setup(Level.Invocation)
+    public void readReactor() throws Exception {
+        // The extension mutates the projects, so every invocation starts from freshly read ones
+        final List<MavenProject> projects = Fixtures.readReactor(reactor, modules);
+
+        final MavenExecutionRequest request = new DefaultMavenExecutionRequest();
+        request.getUserProperties().setProperty(
+                PluginConfig.PROPERTY_PREFIX + "." + PluginConfig.PARALLEL,
+                Boolean.toString(parallel)
+        );
+        session = new MavenSession(container, request, new DefaultMavenExecutionResult(), projects);
+        session.setAllProjects(projects);
+
+        // A new session, so strategies don't reuse versions calculated by the previous invocation
+        container.lookup(LegacySupport.class).setSession(session);
+
+        extension = new VersionInferenceExtension();
+        extension.setLogger(new ConsoleLogger(Logger.LEVEL_WARN, "benchmark"));
+        extension.setContainer(container);
+        extension.setProjectGavs(new ConcurrentHashMap<>());
+        extension.setPluginConfigProvider(new PluginConfigProvider(container));
+        extension.setModelProvider(new ModelProvider());
+    }
+
+    @Benchmark
+    public MavenSession afterProjectsRead() throws Exception {
+        extension.afterProjectsRead(session);
+        return session;
+    }
+}
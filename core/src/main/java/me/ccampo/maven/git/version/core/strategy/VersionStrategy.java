@@ -19,6 +19,10 @@ package me.ccampo.maven.git.version.core.strategy;
 import me.ccampo.maven.git.version.core.VersionException;
 import org.apache.maven.project.MavenProject;
 
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
 /**
  * Simple strategy for resolving a version.
  *
@@ -34,4 +38,25 @@ public interface VersionStrategy {
      * @throws VersionException thrown if there is any problems loading the new version.
      */
     String getVersion(final MavenProject mavenProject) throws VersionException;
+
+    /**
+     * Returns new versions for a batch of projects which all share this strategy (and its configuration). Strategies
+     * may override this to do work once per distinct input rather than once per project; by default it simply calls
+     * {@link #getVersion(MavenProject)} for each project.
+     * <p>
+     * Note that {@link MavenProject} hashes on its version, so the returned map must be read before any of the
+     * projects are updated.
+     *
+     * @param mavenProjects projects which will be updated.
+     * @return the new version of each project, keyed by project.
+     * @throws VersionException thrown if there is any problems loading a new version.
+     */
+    default Map<MavenProject, String> getVersions(final Collection<MavenProject> mavenProjects)
+            throws VersionException {
+        final Map<MavenProject, String> versions = new LinkedHashMap<>();
+        for (final MavenProject mavenProject : mavenProjects) {
+            versions.put(mavenProject, getVersion(mavenProject));
+        }
+        return versions;
+    }
 }
@@ -19,29 +19,44 @@ package me.ccampo.maven.git.version.plugin;
 import me.ccampo.maven.git.version.core.VersionException;
 import me.ccampo.maven.git.version.core.strategy.VersionStrategy;
 import me.ccampo.maven.git.version.plugin.util.GroupArtifactVersion;
+import me.ccampo.maven.git.version.plugin.util.InferenceReport;
+import me.ccampo.maven.git.version.plugin.util.InferenceReport.Phase;
 import me.ccampo.maven.git.version.plugin.util.ModelProvider;
 import me.ccampo.maven.git.version.plugin.util.PluginConfig;
 import me.ccampo.maven.git.version.plugin.util.PluginConfigProvider;
+import me.ccampo.maven.git.version.plugin.util.PomPatcher;
+import me.ccampo.maven.git.version.plugin.util.PomWriter;
+import me.ccampo.maven.git.version.plugin.util.StrategyProvider;
 import org.apache.maven.AbstractMavenLifecycleParticipant;
 import org.apache.maven.MavenExecutionException;
 import org.apache.maven.artifact.versioning.VersionRange;
 import org.apache.maven.execution.MavenSession;
 import org.apache.maven.model.Model;
-import org.apache.maven.model.io.xpp3.MavenXpp3Writer;
 import org.apache.maven.project.MavenProject;
 import org.codehaus.plexus.PlexusContainer;
 import org.codehaus.plexus.component.annotations.Component;
 import org.codehaus.plexus.component.annotations.Requirement;
 import org.codehaus.plexus.logging.Logger;
+import org.codehaus.plexus.util.xml.Xpp3Dom;
 
 import java.io.File;
-import java.io.FileWriter;
 import java.io.IOException;
-import java.io.Writer;
-import java.util.HashMap;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.regex.Pattern;
 
 /**
@@ -51,6 +66,13 @@ import java.util.regex.Pattern;
  * <p>
  * 'strategy' - The configuration for an ExternalVersionStrategy.
  * 'hint' -  A component hint to load the ExternalVersionStrategy.
+ * <p>
+ * Setting the 'version-inference.parallel' property to true infers versions and writes POMs on a bounded thread pool
+ * ('version-inference.threads', defaulting to the number of available processors).
+ * <p>
+ * Timings of each phase are logged at the end (at debug level, or info level if 'version-inference.report' is true).
+ * Setting 'version-inference.jsonReport' to true also writes them to target/version-inference-report.json of the
+ * top level project.
  *
  * @author <a href="mailto:bdemers@apache.org">Brian Demers</a>
  * @author <a href="mailto:ccampo.progs@gmail.com">Chris Campo</a>
@@ -58,35 +80,74 @@ import java.util.regex.Pattern;
 @Component(role = AbstractMavenLifecycleParticipant.class, hint = "version-inference")
 public class VersionInferenceExtension extends AbstractMavenLifecycleParticipant {
 
+    /**
+     * Lifecycle phases which run before anything reads the project's POM file. Notably, package is not one of them,
+     * since archivers embed the POM in the artifact.
+     */
+    private static final Set<String> PHASES_WITHOUT_POM_FILE = new HashSet<>(Arrays.asList(
+            "pre-clean", "clean", "post-clean",
+            "validate", "initialize",
+            "generate-sources", "process-sources", "generate-resources", "process-resources",
+            "compile", "process-classes",
+            "generate-test-sources", "process-test-sources", "generate-test-resources", "process-test-resources",
+            "test-compile", "process-test-classes", "test"
+    ));
+
     @Requirement
     private Logger logger;
 
     @Requirement
     private PlexusContainer container;
 
-    private Map<GroupArtifactVersion, String> projectGavs = new HashMap<>();
+    private Map<GroupArtifactVersion, String> projectGavs = new ConcurrentHashMap<>();
 
     private PluginConfigProvider pluginConfigProvider;
 
     private ModelProvider modelProvider;
 
+    private PomWriter pomWriter;
+
+    private InferenceReport report;
+
     @Override
     public void afterProjectsRead(final MavenSession session) throws MavenExecutionException {
+        final long start = System.nanoTime();
         init();
-
-        for (final MavenProject mavenProject : session.getAllProjects()) {
-            setProjectVersion(mavenProject);
+        report = new InferenceReport();
+        try {
+            inferVersions(session);
+        } finally {
+            report.setTotalNanos(System.nanoTime() - start);
+            logReport(session);
         }
+    }
 
-        // Need to do a second pass here since our projectGavs map is populated now
-        for (final MavenProject mavenProject : session.getAllProjects()) {
-            final PluginConfig pluginConfig = pluginConfigProvider.getForProject(mavenProject);
-            if (pluginConfig != null) {
-                if (pluginConfig.shouldUpdateDependencies) {
-                    setDependencyVersions(mavenProject);
+    private void inferVersions(final MavenSession session) throws MavenExecutionException {
+        final List<MavenProject> projects = session.getAllProjects();
+        final ExecutorService executor = createExecutor(session, projects);
+        final boolean pomFileNeeded = isPomFileNeeded(session);
+        try {
+            forEach(getStrategyBatches(projects, executor != null), this::setProjectVersions, executor);
+
+            // Need to do a second pass here since our projectGavs map is populated now
+            forEach(projects, mavenProject -> {
+                final PluginConfig pluginConfig = getPluginConfig(mavenProject);
+                if (pluginConfig != null) {
+                    if (pluginConfig.shouldUpdateDependencies) {
+                        setDependencyVersions(mavenProject);
+                    }
+                    setParentVersion(mavenProject, pluginConfig);
+                    if (pomFileNeeded || !pluginConfig.shouldWritePomLazily) {
+                        createNewVersionPom(mavenProject);
+                    } else if (logger.isDebugEnabled()) {
+                        logger.debug(VersionInferenceExtension.class.getSimpleName() + ": not writing a new pom file " +
+                                "for " + mavenProject.getArtifactId() + "; no requested phase needs it");
+                    }
                 }
-                setParentVersion(mavenProject);
-                createNewVersionPom(mavenProject);
+            }, executor);
+        } finally {
+            if (executor != null) {
+                executor.shutdownNow();
             }
         }
     }
@@ -104,41 +165,289 @@ public class VersionInferenceExtension extends AbstractMavenLifecycleParticipant
             modelProvider = new ModelProvider();
         }
 
+        if (pomWriter == null) {
+            pomWriter = new PomWriter();
+        }
+
         if (projectGavs == null) {
-            projectGavs = new HashMap<>();
+            projectGavs = new ConcurrentHashMap<>();
         }
     }
 
-    private void setProjectVersion(final MavenProject mavenProject) throws MavenExecutionException {
-        // Get the plugin config
+    /**
+     * @return whether any of the requested goals or phases may read the projects' POM files, e.g. to install or deploy
+     * them. Plugin goals and the default goal are assumed to need them.
+     */
+    private static boolean isPomFileNeeded(final MavenSession session) {
+        final List<String> goals = session.getGoals();
+        return goals == null || goals.isEmpty() || !PHASES_WITHOUT_POM_FILE.containsAll(goals);
+    }
+
+    /**
+     * Creates the thread pool used to process projects in parallel, or returns null if projects should be processed
+     * sequentially on the calling thread.
+     * <p>
+     * Each distinct strategy configuration gets its own instance, unless the strategy is a Plexus singleton, which is
+     * then re-configured for every configuration. Running strategies concurrently is therefore only safe when no
+     * singleton is shared by different configurations. All configurations are resolved here, sequentially, so worker
+     * threads only ever read them.
+     */
+    private ExecutorService createExecutor(final MavenSession session, final List<MavenProject> projects)
+            throws MavenExecutionException {
+        if (!Boolean.parseBoolean(getSessionProperty(session, PluginConfig.PARALLEL))) {
+            return null;
+        }
+
+        final Map<VersionStrategy, Xpp3Dom> strategyConfigurations = new IdentityHashMap<>();
+        for (final MavenProject mavenProject : projects) {
+            final PluginConfig pluginConfig = getPluginConfig(mavenProject);
+            if (pluginConfig == null) {
+                continue;
+            }
+            final Xpp3Dom strategyConfiguration = PluginConfig.getStrategyConfiguration(mavenProject);
+            final Xpp3Dom existing =
+                    strategyConfigurations.putIfAbsent(pluginConfig.versionStrategy, strategyConfiguration);
+            if (existing != null && !existing.equals(strategyConfiguration)) {
+                final String hint = strategyConfiguration.getAttribute(PluginConfig.STRATEGY_HINT);
+                logger.warn("Projects configure the '" + hint + "' strategy differently; " +
+                        "inferring versions sequentially.");
+                return null;
+            }
+        }
+
+        final String threadsProperty = getSessionProperty(session, PluginConfig.THREADS);
+        final int threads;
+        try {
+            threads = threadsProperty != null
+                    ? Integer.parseInt(threadsProperty.trim())
+                    : Runtime.getRuntime().availableProcessors();
+        } catch (final NumberFormatException e) {
+            throw new MavenExecutionException(
+                    "Invalid value for " + PluginConfig.PROPERTY_PREFIX + "." + PluginConfig.THREADS + ": '" +
+                            threadsProperty + "'; expected a number of threads",
+                    e
+            );
+        }
+        if (threads <= 1) {
+            return null;
+        }
+
+        logger.debug(VersionInferenceExtension.class.getSimpleName() + ": using " + threads + " threads");
+        final AtomicInteger threadCount = new AtomicInteger();
+        return Executors.newFixedThreadPool(threads, runnable -> {
+            final Thread thread = new Thread(runnable, "version-inference-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    private void logReport(final MavenSession session) {
+        final boolean verbose = Boolean.parseBoolean(getSessionProperty(session, PluginConfig.REPORT));
+        if (verbose || logger.isDebugEnabled()) {
+            for (final String line : report.toTable()) {
+                if (verbose) {
+                    logger.info(line);
+                } else {
+                    logger.debug(line);
+                }
+            }
+        }
+
+        if (Boolean.parseBoolean(getSessionProperty(session, PluginConfig.JSON_REPORT))) {
+            final MavenProject topLevelProject = session.getTopLevelProject();
+            final File reportFile = new File(
+                    topLevelProject != null ? topLevelProject.getBuild().getDirectory() : "target",
+                    PluginConfig.JSON_REPORT_FILE
+            );
+            try {
+                report.writeJson(reportFile);
+                logger.info("Version inference report written to " + reportFile);
+            } catch (final IOException e) {
+                logger.warn("Unable to write version inference report to " + reportFile + ": " + e.getMessage());
+            }
+        }
+    }
+
+    private static String getReportName(final MavenProject mavenProject) {
+        // The version is about to change, so leave it out
+        return mavenProject.getGroupId() + ":" + mavenProject.getArtifactId();
+    }
+
+    private PluginConfig getPluginConfig(final MavenProject mavenProject) throws MavenExecutionException {
+        final boolean cached = pluginConfigProvider.isCached(mavenProject);
+        final long start = System.nanoTime();
         final PluginConfig pluginConfig = pluginConfigProvider.getForProject(mavenProject);
+        report.record(getReportName(mavenProject), Phase.STRATEGY_LOOKUP, System.nanoTime() - start, cached);
+        return pluginConfig;
+    }
+
+    private Model getModel(final MavenProject mavenProject) throws MavenExecutionException {
+        final boolean cached = modelProvider.isCached(mavenProject);
+        final long start = System.nanoTime();
+        final Model model = modelProvider.getModel(mavenProject);
+        report.record(getReportName(mavenProject), Phase.POM_PARSING, System.nanoTime() - start, cached);
+        return model;
+    }
+
+    private static String getSessionProperty(final MavenSession session, final String name) {
+        final String key = PluginConfig.PROPERTY_PREFIX + "." + name;
+        return session.getUserProperties().getProperty(key, session.getSystemProperties().getProperty(key));
+    }
+
+    /**
+     * Applies the action to every item, either sequentially or on the given executor. In the latter case this waits
+     * for all items to finish, so each call acts as a barrier between passes.
+     */
+    private <T> void forEach(
+            final List<T> items,
+            final Action<T> action,
+            final ExecutorService executor
+    ) throws MavenExecutionException {
+        if (executor == null) {
+            for (final T item : items) {
+                action.apply(item);
+            }
+            return;
+        }
+
+        final List<Future<?>> futures = new ArrayList<>(items.size());
+        for (final T item : items) {
+            futures.add(executor.submit(() -> {
+                action.apply(item);
+                return null;
+            }));
+        }
+
+        MavenExecutionException failure = null;
+        for (final Future<?> future : futures) {
+            try {
+                future.get();
+            } catch (final ExecutionException e) {
+                // Report the first failure, in reactor order, but let the other projects finish first
+                if (failure == null) {
+                    failure = e.getCause() instanceof MavenExecutionException
+                            ? (MavenExecutionException) e.getCause()
+                            : new MavenExecutionException(e.getCause().getMessage(), e.getCause());
+                }
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new MavenExecutionException("Interrupted while inferring project versions", e);
+            }
+        }
 
-        if (pluginConfig != null) {
-            // Store the old version before changing it
-            final String oldVersion = mavenProject.getVersion();
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    @FunctionalInterface
+    private interface Action<T> {
+        void apply(T item) throws MavenExecutionException;
+    }
+
+    /**
+     * Projects sharing a strategy instance and configuration, whose versions are requested from the strategy at once.
+     */
+    private static class StrategyBatch {
+        final VersionStrategy strategy;
+        final Xpp3Dom configuration;
+        final List<MavenProject> projects = new ArrayList<>();
+        boolean reconfigure;
+
+        StrategyBatch(final VersionStrategy strategy, final Xpp3Dom configuration) {
+            this.strategy = strategy;
+            this.configuration = configuration;
+        }
+    }
+
+    /**
+     * Groups all plugin enabled projects by strategy instance and configuration, in reactor order.
+     *
+     * @param fanOut whether strategies that do not implement batch lookups should get one batch per project, so they
+     *               can still run in parallel.
+     */
+    private List<StrategyBatch> getStrategyBatches(final List<MavenProject> projects, final boolean fanOut)
+            throws MavenExecutionException {
+        final List<StrategyBatch> batches = new ArrayList<>();
+        for (final MavenProject mavenProject : projects) {
+            final PluginConfig pluginConfig = getPluginConfig(mavenProject);
+            if (pluginConfig == null) {
+                continue;
+            }
+
+            final VersionStrategy strategy = pluginConfig.versionStrategy;
+            final Xpp3Dom configuration = PluginConfig.getStrategyConfiguration(mavenProject);
+            StrategyBatch batch = null;
+            for (final StrategyBatch existing : batches) {
+                if (existing.strategy == strategy && Objects.equals(existing.configuration, configuration)) {
+                    batch = existing;
+                }
+            }
 
-            // Now use the strategy to figure out the new version
-            final String newVersion = getNewVersion(pluginConfig.versionStrategy, mavenProject);
+            if (batch == null || (fanOut && !implementsBatchLookup(strategy))) {
+                batch = new StrategyBatch(strategy, configuration);
+                batches.add(batch);
+            }
+            batch.projects.add(mavenProject);
+        }
 
-            logger.info("Inferred project version: " + newVersion);
+        // An instance shared by several configurations is left configured for whichever was resolved last, so every
+        // batch of it, the first one included, applies its own configuration again. Never the case when running in
+        // parallel, see createExecutor.
+        for (final StrategyBatch batch : batches) {
+            for (final StrategyBatch other : batches) {
+                if (other.strategy == batch.strategy && !Objects.equals(other.configuration, batch.configuration)) {
+                    batch.reconfigure = true;
+                }
+            }
+        }
+        return batches;
+    }
 
-            final String oldFinalName = mavenProject.getBuild().getFinalName();
-            final String newFinalName = oldFinalName.replaceFirst(Pattern.quote(oldVersion), newVersion);
-            logger.info("Inferred project.build.finalName: " + newFinalName);
+    private static boolean implementsBatchLookup(final VersionStrategy strategy) {
+        try {
+            return strategy.getClass().getMethod("getVersions", Collection.class).getDeclaringClass() !=
+                    VersionStrategy.class;
+        } catch (final NoSuchMethodException e) {
+            return false;
+        }
+    }
 
-            // Now that we have the new version, we update the project versions.
-            mavenProject.setVersion(newVersion);
-            mavenProject.getArtifact().setVersion(newVersion);
-            VersionRange versionRange = VersionRange.createFromVersion(newVersion);
-            mavenProject.getArtifact().setVersionRange(versionRange);
-            mavenProject.getBuild().setFinalName(newFinalName);
+    private void setProjectVersions(final StrategyBatch batch) throws MavenExecutionException {
+        if (batch.reconfigure) {
+            // The instance is shared with another configuration, so apply this batch's configuration again
+            StrategyProvider.configure(batch.strategy, batch.configuration, container);
+        }
 
-            final GroupArtifactVersion oldProjectVersion =
-                    GroupArtifactVersion.of(mavenProject.getGroupId(), mavenProject.getArtifactId(), oldVersion);
-            projectGavs.put(oldProjectVersion, newVersion);
+        // Read every new version before touching the projects, since projects hash on their version
+        final List<String> newVersions = getNewVersions(batch.strategy, batch.projects);
+        for (int i = 0; i < batch.projects.size(); i++) {
+            setProjectVersion(batch.projects.get(i), newVersions.get(i));
         }
     }
 
+    private void setProjectVersion(final MavenProject mavenProject, final String newVersion) {
+        // Store the old version before changing it
+        final String oldVersion = mavenProject.getVersion();
+
+        logger.info("Inferred project version: " + newVersion);
+
+        final String oldFinalName = mavenProject.getBuild().getFinalName();
+        final String newFinalName = oldFinalName.replaceFirst(Pattern.quote(oldVersion), newVersion);
+        logger.info("Inferred project.build.finalName: " + newFinalName);
+
+        // Now that we have the new version, we update the project versions.
+        mavenProject.setVersion(newVersion);
+        mavenProject.getArtifact().setVersion(newVersion);
+        VersionRange versionRange = VersionRange.createFromVersion(newVersion);
+        mavenProject.getArtifact().setVersionRange(versionRange);
+        mavenProject.getBuild().setFinalName(newFinalName);
+
+        final GroupArtifactVersion oldProjectVersion =
+                GroupArtifactVersion.of(mavenProject.getGroupId(), mavenProject.getArtifactId(), oldVersion);
+        projectGavs.put(oldProjectVersion, newVersion);
+    }
+
     /**
      * In the case where the plugin is configured to update project dependency
      * versions, we loop through the dependencies of the project and check if
@@ -166,21 +475,24 @@ public class VersionInferenceExtension extends AbstractMavenLifecycleParticipant
         });
     }
 
-    private void setParentVersion(final MavenProject mavenProject) throws MavenExecutionException {
-        // Update model version. The project's version has been updated so we can just use it here.
-        final Model model = modelProvider.getModel(mavenProject);
-        model.setVersion(mavenProject.getVersion());
-
-        // Update model parent version
-        if (model.getParent() != null) {
-            final GroupArtifactVersion parentGav = GroupArtifactVersion.of(
-                    model.getParent().getGroupId(),
-                    model.getParent().getArtifactId(),
-                    model.getParent().getVersion()
-            );
-            final String newVersionForParent = projectGavs.get(parentGav);
-            if (newVersionForParent != null) {
-                model.getParent().setVersion(newVersionForParent);
+    private void setParentVersion(final MavenProject mavenProject, final PluginConfig pluginConfig)
+            throws MavenExecutionException {
+        // When patching, the versions are replaced in the original POM as it is written instead
+        if (!pluginConfig.shouldPatchVersions) {
+            // Update model version. The project's version has been updated so we can just use it here.
+            final Model model = getModel(mavenProject);
+            model.setVersion(mavenProject.getVersion());
+
+            // Update model parent version
+            if (model.getParent() != null) {
+                final String newVersionForParent = getNewParentVersion(
+                        model.getParent().getGroupId(),
+                        model.getParent().getArtifactId(),
+                        model.getParent().getVersion()
+                );
+                if (newVersionForParent != null) {
+                    model.getParent().setVersion(newVersionForParent);
+                }
             }
         }
 
@@ -201,23 +513,40 @@ public class VersionInferenceExtension extends AbstractMavenLifecycleParticipant
         }
     }
 
-    private String getNewVersion(final VersionStrategy strategy, final MavenProject mavenProject)
+    private String getNewParentVersion(final String groupId, final String artifactId, final String version) {
+        return projectGavs.get(GroupArtifactVersion.of(groupId, artifactId, version));
+    }
+
+    private List<String> getNewVersions(final VersionStrategy strategy, final List<MavenProject> mavenProjects)
             throws MavenExecutionException {
-        final Optional<String> newVersion;
+        final Map<MavenProject, String> versions;
+        final long start = System.nanoTime();
         try {
-            newVersion = Optional.ofNullable(strategy.getVersion(mavenProject));
+            versions = strategy.getVersions(mavenProjects);
         } catch (final VersionException e) {
             throw new MavenExecutionException(e.getMessage(), e);
         }
 
-        return newVersion.orElseThrow(() -> {
-            final String msg = "Unable to infer new version; strategy returned null.";
-            return new MavenExecutionException(msg, mavenProject.getFile());
-        }).trim();
+        // A batch is timed as a whole, so spread it evenly over its projects
+        final long elapsed = System.nanoTime() - start;
+        report.recordStrategy(strategy.getClass().getSimpleName(), elapsed);
+        for (final MavenProject mavenProject : mavenProjects) {
+            report.record(getReportName(mavenProject), Phase.INFERENCE, elapsed / mavenProjects.size(), false);
+        }
+
+        final List<String> newVersions = new ArrayList<>(mavenProjects.size());
+        for (final MavenProject mavenProject : mavenProjects) {
+            final Optional<String> newVersion = Optional.ofNullable(versions.get(mavenProject));
+            newVersions.add(newVersion.orElseThrow(() -> {
+                final String msg = "Unable to infer new version; strategy returned null.";
+                return new MavenExecutionException(msg, mavenProject.getFile());
+            }).trim());
+        }
+        return newVersions;
     }
 
     private void createNewVersionPom(final MavenProject mavenProject) throws MavenExecutionException {
-        final PluginConfig pluginConfig = pluginConfigProvider.getForProject(mavenProject);
+        final PluginConfig pluginConfig = getPluginConfig(mavenProject);
 
         final File newPom;
         try {
@@ -238,18 +567,58 @@ public class VersionInferenceExtension extends AbstractMavenLifecycleParticipant
             logger.debug(VersionInferenceExtension.class.getSimpleName() + ": using new pom file => " + newPom);
         }
 
-        final Model model = modelProvider.getModel(mavenProject);
+        final byte[] patchedPom = pluginConfig.shouldPatchVersions ? patchVersions(mavenProject) : null;
+        final Model model = pluginConfig.shouldPatchVersions ? null : getModel(mavenProject);
 
-        // Write the new pom to disk
-        try (final Writer fileWriter = new FileWriter(newPom)) {
-            new MavenXpp3Writer().write(fileWriter, model);
+        // Write the new pom to disk, unless it's already there from a previous build
+        final long start = System.nanoTime();
+        final long bytesWritten;
+        try {
+            bytesWritten = patchedPom != null ? pomWriter.write(patchedPom, newPom) : pomWriter.write(model, newPom);
         } catch (final IOException e) {
             throw new MavenExecutionException(e.getMessage(), e);
         }
+        final boolean reused = bytesWritten < 0;
+        report.record(getReportName(mavenProject), Phase.POM_WRITING, System.nanoTime() - start, reused);
+        if (reused) {
+            if (logger.isDebugEnabled()) {
+                logger.debug(VersionInferenceExtension.class.getSimpleName() + ": " + newPom + " is up to date");
+            }
+        } else {
+            report.recordBytesWritten(getReportName(mavenProject), bytesWritten);
+        }
 
         mavenProject.setFile(newPom);
     }
 
+    /**
+     * @return the contents of the project's original POM, with only its version and parent version replaced.
+     */
+    private byte[] patchVersions(final MavenProject mavenProject) throws MavenExecutionException {
+        final long start = System.nanoTime();
+        final PomPatcher patcher;
+        try {
+            patcher = PomPatcher.read(mavenProject.getFile());
+        } catch (final IOException e) {
+            throw new MavenExecutionException(e.getMessage(), e);
+        }
+        report.record(getReportName(mavenProject), Phase.POM_PARSING, System.nanoTime() - start, false);
+
+        // The project's version has been updated so we can just use it here
+        patcher.setVersion(mavenProject.getVersion());
+        if (patcher.hasParent()) {
+            final String newVersionForParent = getNewParentVersion(
+                    patcher.getParentGroupId(),
+                    patcher.getParentArtifactId(),
+                    patcher.getParentVersion()
+            );
+            if (newVersionForParent != null) {
+                patcher.setParentVersion(newVersionForParent);
+            }
+        }
+        return patcher.toByteArray();
+    }
+
     /*
      * The following setters are primarily used to facilitate testing. Probably not used in practice.
      */
@@ -277,4 +646,9 @@ public class VersionInferenceExtension extends AbstractMavenLifecycleParticipant
     public void setModelProvider(final ModelProvider modelProvider) {
         this.modelProvider = modelProvider;
     }
+
+    @SuppressWarnings("unused")
+    public void setPomWriter(final PomWriter pomWriter) {
+        this.pomWriter = pomWriter;
+    }
 }
@@ -0,0 +1,200 @@
+package me.ccampo.maven.git.version.plugin.util;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Collects wall time, bytes written and cache hits for each phase of version inference, per project and per strategy.
+ * Safe for concurrent use, since projects may be processed in parallel.
+ */
+public class InferenceReport {
+
+    public enum Phase {
+        STRATEGY_LOOKUP("lookup"),
+        INFERENCE("inference"),
+        POM_PARSING("parse"),
+        POM_WRITING("write");
+
+        public final String label;
+
+        Phase(final String label) {
+            this.label = label;
+        }
+    }
+
+    public static class Stats {
+        private final long[] nanos = new long[Phase.values().length];
+        private long bytesWritten;
+        private int cacheHits;
+        private int calls;
+
+        public long getNanos(final Phase phase) {
+            return nanos[phase.ordinal()];
+        }
+
+        public long getTotalNanos() {
+            long total = 0;
+            for (final long n : nanos) {
+                total += n;
+            }
+            return total;
+        }
+
+        public long getBytesWritten() {
+            return bytesWritten;
+        }
+
+        public int getCacheHits() {
+            return cacheHits;
+        }
+
+        public int getCalls() {
+            return calls;
+        }
+    }
+
+    private final Map<String, Stats> projects = new LinkedHashMap<>();
+    private final Map<String, Stats> strategies = new LinkedHashMap<>();
+    private long totalNanos;
+
+    public synchronized void record(final String project, final Phase phase, final long nanos, final boolean cacheHit) {
+        final Stats stats = projects.computeIfAbsent(project, p -> new Stats());
+        stats.nanos[phase.ordinal()] += nanos;
+        stats.calls++;
+        if (cacheHit) {
+            stats.cacheHits++;
+        }
+    }
+
+    public synchronized void recordBytesWritten(final String project, final long bytes) {
+        projects.computeIfAbsent(project, p -> new Stats()).bytesWritten += bytes;
+    }
+
+    public synchronized void recordStrategy(final String strategy, final long nanos) {
+        final Stats stats = strategies.computeIfAbsent(strategy, s -> new Stats());
+        stats.nanos[Phase.INFERENCE.ordinal()] += nanos;
+        stats.calls++;
+    }
+
+    public synchronized void setTotalNanos(final long totalNanos) {
+        this.totalNanos = totalNanos;
+    }
+
+    public synchronized Map<String, Stats> getProjects() {
+        return new LinkedHashMap<>(projects);
+    }
+
+    public synchronized Map<String, Stats> getStrategies() {
+        return new LinkedHashMap<>(strategies);
+    }
+
+    /**
+     * @return a human readable table, one line per row.
+     */
+    public synchronized List<String> toTable() {
+        final List<String> lines = new ArrayList<>();
+        int width = "project".length();
+        for (final String project : projects.keySet()) {
+            width = Math.max(width, project.length());
+        }
+        for (final String strategy : strategies.keySet()) {
+            width = Math.max(width, strategy.length());
+        }
+
+        final StringBuilder header = new StringBuilder(pad("project", width));
+        for (final Phase phase : Phase.values()) {
+            header.append(String.format(Locale.ROOT, " %10s", phase.label + " ms"));
+        }
+        header.append(String.format(Locale.ROOT, " %10s %6s", "bytes", "hits"));
+        lines.add(header.toString());
+
+        final Stats total = new Stats();
+        for (final Map.Entry<String, Stats> entry : projects.entrySet()) {
+            final Stats stats = entry.getValue();
+            lines.add(row(entry.getKey(), width, stats));
+            for (final Phase phase : Phase.values()) {
+                total.nanos[phase.ordinal()] += stats.getNanos(phase);
+            }
+            total.bytesWritten += stats.bytesWritten;
+            total.cacheHits += stats.cacheHits;
+        }
+        lines.add(row("total", width, total));
+
+        for (final Map.Entry<String, Stats> entry : strategies.entrySet()) {
+            final Stats stats = entry.getValue();
+            lines.add(String.format(Locale.ROOT, "strategy %s: %d call(s), %.1f ms", entry.getKey(), stats.calls,
+                    millis(stats.getNanos(Phase.INFERENCE))));
+        }
+        lines.add(String.format(Locale.ROOT, "version inference took %.1f ms", millis(totalNanos)));
+        return lines;
+    }
+
+    public synchronized void writeJson(final File file) throws IOException {
+        final File parent = file.getParentFile();
+        if (parent != null && !parent.isDirectory() && !parent.mkdirs()) {
+            throw new IOException("Cannot create directory " + parent);
+        }
+
+        try (final Writer writer = new OutputStreamWriter(new FileOutputStream(file), StandardCharsets.UTF_8)) {
+            writer.write("{\n  \"totalMillis\": " + formatMillis(totalNanos) + ",\n  \"projects\": [");
+            writeStats(writer, projects, "project");
+            writer.write("\n  ],\n  \"strategies\": [");
+            writeStats(writer, strategies, "strategy");
+            writer.write("\n  ]\n}\n");
+        }
+    }
+
+    private static void writeStats(final Writer writer, final Map<String, Stats> entries, final String nameKey)
+            throws IOException {
+        String separator = "";
+        for (final Map.Entry<String, Stats> entry : entries.entrySet()) {
+            final Stats stats = entry.getValue();
+            writer.write(separator + "\n    {\"" + nameKey + "\": \"" + escape(entry.getKey()) + "\"");
+            for (final Phase phase : Phase.values()) {
+                writer.write(", \"" + phase.label + "Millis\": " + formatMillis(stats.getNanos(phase)));
+            }
+            writer.write(", \"bytesWritten\": " + stats.bytesWritten + ", \"cacheHits\": " + stats.cacheHits +
+                    ", \"calls\": " + stats.calls + "}");
+            separator = ",";
+        }
+    }
+
+    private static String row(final String name, final int width, final Stats stats) {
+        final StringBuilder sb = new StringBuilder(pad(name, width));
+        for (final Phase phase : Phase.values()) {
+            sb.append(String.format(Locale.ROOT, " %10.1f", millis(stats.getNanos(phase))));
+        }
+        sb.append(String.format(Locale.ROOT, " %10d %6d", stats.bytesWritten, stats.cacheHits));
+        return sb.toString();
+    }
+
+    private static String pad(final String s, final int width) {
+        final StringBuilder sb = new StringBuilder(s);
+        while (sb.length() < width) {
+            sb.append(' ');
+        }
+        return sb.toString();
+    }
+
+    private static double millis(final long nanos) {
+        return nanos / (double) TimeUnit.MILLISECONDS.toNanos(1);
+    }
+
+    private static String formatMillis(final long nanos) {
+        return String.format(Locale.ROOT, "%.3f", millis(nanos));
+    }
+
+    private static String escape(final String s) {
+        return s.replace("\\", "\\\\").replace("\"", "\\\"");
+    }
+}
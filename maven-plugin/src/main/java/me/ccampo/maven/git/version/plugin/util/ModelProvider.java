@@ -9,8 +9,8 @@ import org.codehaus.plexus.util.xml.pull.XmlPullParserException;
 import java.io.FileReader;
 import java.io.IOException;
 import java.io.Reader;
-import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 public class ModelProvider {
 
@@ -21,7 +21,7 @@ public class ModelProvider {
     }
 
     public ModelProvider() {
-        this(new HashMap<>());
+        this(new ConcurrentHashMap<>());
     }
 
     public Model getModel(final MavenProject mavenProject) throws MavenExecutionException {
@@ -37,4 +37,8 @@ public class ModelProvider {
             throw new MavenExecutionException(e.getMessage(), e);
         }
     }
+
+    public boolean isCached(final MavenProject mavenProject) {
+        return models.containsKey(mavenProject);
+    }
 }
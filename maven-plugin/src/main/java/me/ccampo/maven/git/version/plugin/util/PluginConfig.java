@@ -5,11 +5,6 @@ import org.apache.maven.MavenExecutionException;
 import org.apache.maven.model.Plugin;
 import org.apache.maven.project.MavenProject;
 import org.codehaus.plexus.PlexusContainer;
-import org.codehaus.plexus.component.configurator.ComponentConfigurationException;
-import org.codehaus.plexus.component.configurator.ComponentConfigurator;
-import org.codehaus.plexus.component.configurator.expression.DefaultExpressionEvaluator;
-import org.codehaus.plexus.component.repository.exception.ComponentLookupException;
-import org.codehaus.plexus.configuration.xml.XmlPlexusConfiguration;
 import org.codehaus.plexus.util.xml.Xpp3Dom;
 
 import java.io.File;
@@ -21,6 +16,13 @@ public class PluginConfig {
     public static final String GENERATE_TEMPORARY_FILE = "generateTemporaryFile";
     public static final String DELETE_TEMPORARY_FILE = "deleteTemporaryFile";
     public static final String UPDATE_DEPENDENCIES = "updateDependencies";
+    public static final String PATCH_VERSIONS = "patchVersions";
+    public static final String LAZY_POM = "lazyPom";
+    public static final String PARALLEL = "parallel";
+    public static final String THREADS = "threads";
+    public static final String REPORT = "report";
+    public static final String JSON_REPORT = "jsonReport";
+    public static final String JSON_REPORT_FILE = "version-inference-report.json";
     public static final String FULL_PLUGIN_NAME = "me.ccampo:git-version-maven-plugin";
     public static final String STRATEGY_NODE_NAME = "strategy";
     public static final String STRATEGY_HINT = "hint";
@@ -28,22 +30,36 @@ public class PluginConfig {
     public final boolean shouldGenerateTemporaryFile;
     public final boolean shouldDeleteTemporaryFile;
     public final boolean shouldUpdateDependencies;
+    public final boolean shouldPatchVersions;
+    public final boolean shouldWritePomLazily;
     public final VersionStrategy versionStrategy;
 
     public PluginConfig(
             final boolean shouldGenerateTemporaryFile,
             final boolean shouldDeleteTemporaryFile,
             final boolean shouldUpdateDependencies,
+            final boolean shouldPatchVersions,
+            final boolean shouldWritePomLazily,
             final VersionStrategy versionStrategy
     ) {
         this.shouldGenerateTemporaryFile = shouldGenerateTemporaryFile;
         this.shouldDeleteTemporaryFile = shouldDeleteTemporaryFile;
         this.shouldUpdateDependencies = shouldUpdateDependencies;
+        this.shouldPatchVersions = shouldPatchVersions;
+        this.shouldWritePomLazily = shouldWritePomLazily;
         this.versionStrategy = versionStrategy;
     }
 
     public static PluginConfig of(final MavenProject mavenProject, final PlexusContainer container)
             throws MavenExecutionException {
+        return of(mavenProject, new StrategyProvider(container));
+    }
+
+    /**
+     * @param strategyProvider provides (possibly shared) strategy instances for the project's strategy configuration.
+     */
+    public static PluginConfig of(final MavenProject mavenProject, final StrategyProvider strategyProvider)
+            throws MavenExecutionException {
         // Lookup this plugin's configuration from the project
         final Plugin plugin = mavenProject.getPlugin(FULL_PLUGIN_NAME);
         if (plugin != null) {
@@ -52,12 +68,25 @@ public class PluginConfig {
                 getBooleanConfigValue(pluginConfigDom, GENERATE_TEMPORARY_FILE),
                 getBooleanConfigValue(pluginConfigDom, DELETE_TEMPORARY_FILE),
                 getBooleanConfigValue(pluginConfigDom, UPDATE_DEPENDENCIES),
-                getStrategy(pluginConfigDom, mavenProject.getFile(), container)
+                getBooleanConfigValue(pluginConfigDom, PATCH_VERSIONS),
+                getBooleanConfigValue(pluginConfigDom, LAZY_POM),
+                getStrategy(pluginConfigDom, mavenProject.getFile(), strategyProvider)
             );
         }
         return null;
     }
 
+    /**
+     * @return the raw strategy configuration of the given project, or null if the plugin is not configured for it.
+     */
+    public static Xpp3Dom getStrategyConfiguration(final MavenProject mavenProject) {
+        final Plugin plugin = mavenProject.getPlugin(FULL_PLUGIN_NAME);
+        if (plugin == null || plugin.getConfiguration() == null) {
+            return null;
+        }
+        return ((Xpp3Dom) plugin.getConfiguration()).getChild(STRATEGY_NODE_NAME);
+    }
+
     private static boolean getBooleanConfigValue(final Xpp3Dom pluginConfigDom, final String nodeName) {
         final Xpp3Dom n = pluginConfigDom.getChild(nodeName);
         return n != null && Boolean.parseBoolean(n.getValue());
@@ -66,7 +95,7 @@ public class PluginConfig {
     private static VersionStrategy getStrategy(
             final Xpp3Dom configDom,
             final File pomFile,
-            final PlexusContainer container
+            final StrategyProvider strategyProvider
     ) throws MavenExecutionException {
         // Get the requested strategy from the POM config
         final Xpp3Dom strategyNode = Optional.ofNullable(configDom.getChild(STRATEGY_NODE_NAME))
@@ -81,20 +110,7 @@ public class PluginConfig {
                         pomFile
                 ));
 
-        try {
-            // Get and configure the strategy
-            final VersionStrategy strategy = container.lookup(VersionStrategy.class, hint);
-            final ComponentConfigurator configurator = container.lookup(ComponentConfigurator.class, "basic");
-            configurator.configureComponent(
-                    strategy,
-                    new XmlPlexusConfiguration(strategyNode),
-                    new DefaultExpressionEvaluator(),
-                    null,
-                    null
-            );
-            return strategy;
-        } catch (final ComponentLookupException | ComponentConfigurationException e) {
-            throw new MavenExecutionException(e.getMessage(), e);
-        }
+        // Get the configured strategy
+        return strategyProvider.getStrategy(hint, strategyNode);
     }
 }
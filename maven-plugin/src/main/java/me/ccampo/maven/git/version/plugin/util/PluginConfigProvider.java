@@ -4,24 +4,36 @@ import org.apache.maven.MavenExecutionException;
 import org.apache.maven.project.MavenProject;
 import org.codehaus.plexus.PlexusContainer;
 
-import java.util.HashMap;
+import java.util.Collections;
+import java.util.IdentityHashMap;
 import java.util.Map;
 
 public class PluginConfigProvider {
 
     private final Map<MavenProject, PluginConfig> projectConfigs;
-    private final PlexusContainer container;
+    private final StrategyProvider strategyProvider;
 
     public PluginConfigProvider(
             final Map<MavenProject, PluginConfig> projectConfigs,
-            final PlexusContainer container
+            final StrategyProvider strategyProvider
     ) {
         this.projectConfigs = projectConfigs;
-        this.container = container;
+        this.strategyProvider = strategyProvider;
+    }
+
+    public PluginConfigProvider(
+            final Map<MavenProject, PluginConfig> projectConfigs,
+            final PlexusContainer container
+    ) {
+        this(projectConfigs, new StrategyProvider(container));
     }
 
     public PluginConfigProvider(final PlexusContainer container) {
-        this(new HashMap<>(), container);
+        /*
+         * Keyed by identity since MavenProject hashes on its version, which we change. Synchronized rather than
+         * concurrent, since projects without the plugin map to null.
+         */
+        this(Collections.synchronizedMap(new IdentityHashMap<>()), container);
     }
 
     public PluginConfig getForProject(final MavenProject mavenProject) throws MavenExecutionException {
@@ -29,8 +41,12 @@ public class PluginConfigProvider {
         if (projectConfigs.containsKey(mavenProject)) {
             return projectConfigs.get(mavenProject);
         }
-        final PluginConfig pluginConfig = PluginConfig.of(mavenProject, container);
+        final PluginConfig pluginConfig = PluginConfig.of(mavenProject, strategyProvider);
         projectConfigs.put(mavenProject, pluginConfig);
         return pluginConfig;
     }
+
+    public boolean isCached(final MavenProject mavenProject) {
+        return projectConfigs.containsKey(mavenProject);
+    }
 }
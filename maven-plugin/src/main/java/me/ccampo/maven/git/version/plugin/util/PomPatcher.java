@@ -0,0 +1,247 @@
+package me.ccampo.maven.git.version.plugin.util;
+
+import org.codehaus.plexus.util.IOUtil;
+import org.codehaus.plexus.util.xml.XmlStreamReader;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Updates the project and parent versions of a POM without parsing it into a model. The POM is scanned once for the
+ * few elements of interest, and {@link #toByteArray()} returns the original text with only their content replaced,
+ * preserving formatting, comments and everything else the model round-trip would lose.
+ */
+public class PomPatcher {
+
+    private static final String PROJECT = "project";
+    private static final String PARENT = "parent";
+    private static final String GROUP_ID = "groupId";
+    private static final String ARTIFACT_ID = "artifactId";
+    private static final String VERSION = "version";
+
+    /**
+     * The text content of an element: [start, end) offsets into the POM.
+     */
+    private static class Span {
+        final int start;
+        final int end;
+
+        Span(final int start, final int end) {
+            this.start = start;
+            this.end = end;
+        }
+    }
+
+    private final String pom;
+    private final Charset charset;
+    private final Span version;
+    private final Span artifactId;
+    private final Span parentGroupId;
+    private final Span parentArtifactId;
+    private final Span parentVersion;
+
+    private final Map<Span, String> replacements = new TreeMap<>(Comparator.comparingInt(span -> span.start));
+
+    private PomPatcher(final String pom, final Charset charset) throws IOException {
+        this.pom = pom;
+        this.charset = charset;
+
+        Span version = null;
+        Span artifactId = null;
+        Span parentGroupId = null;
+        Span parentArtifactId = null;
+        Span parentVersion = null;
+
+        final List<String> path = new ArrayList<>();
+        int contentStart = -1;
+        int i = 0;
+        while ((i = pom.indexOf('<', i)) >= 0) {
+            if (pom.startsWith("<!--", i)) {
+                i = skipPast(pom, i, "-->");
+            } else if (pom.startsWith("<![CDATA[", i)) {
+                i = skipPast(pom, i, "]]>");
+            } else if (pom.startsWith("<?", i)) {
+                i = skipPast(pom, i, "?>");
+            } else if (pom.startsWith("<!", i)) {
+                // DOCTYPE; POMs don't declare internal subsets
+                i = skipPast(pom, i, ">");
+            } else if (pom.startsWith("</", i)) {
+                final int end = skipPast(pom, i, ">");
+                if (path.isEmpty()) {
+                    throw new IOException("Unexpected end tag at offset " + i);
+                }
+                final Span span = new Span(contentStart, i);
+                if (!PROJECT.equals(path.get(0))) {
+                    throw new IOException("Not a POM; the root element is " + path.get(0));
+                } else if (path.size() == 2) {
+                    switch (path.get(1)) {
+                        case VERSION:
+                            version = span;
+                            break;
+                        case ARTIFACT_ID:
+                            artifactId = span;
+                            break;
+                        default:
+                            break;
+                    }
+                } else if (path.size() == 3 && PARENT.equals(path.get(1))) {
+                    switch (path.get(2)) {
+                        case GROUP_ID:
+                            parentGroupId = span;
+                            break;
+                        case ARTIFACT_ID:
+                            parentArtifactId = span;
+                            break;
+                        case VERSION:
+                            parentVersion = span;
+                            break;
+                        default:
+                            break;
+                    }
+                }
+                path.remove(path.size() - 1);
+                i = end;
+            } else {
+                final int end = skipTag(pom, i);
+                if (pom.charAt(end - 2) != '/') {
+                    path.add(localName(pom, i + 1));
+                    contentStart = end;
+                }
+                i = end;
+            }
+        }
+
+        if (!path.isEmpty() || artifactId == null) {
+            throw new IOException("Not a well-formed POM; missing " + ARTIFACT_ID);
+        }
+
+        this.version = version;
+        this.artifactId = artifactId;
+        this.parentGroupId = parentGroupId;
+        this.parentArtifactId = parentArtifactId;
+        this.parentVersion = parentVersion;
+    }
+
+    /**
+     * Reads the given POM, honoring its declared encoding.
+     *
+     * @throws IOException if the file cannot be read or is not a well-formed POM.
+     */
+    public static PomPatcher read(final File file) throws IOException {
+        try (final XmlStreamReader reader = new XmlStreamReader(file)) {
+            final Charset charset = Charset.forName(reader.getEncoding());
+            return new PomPatcher(IOUtil.toString(reader), charset);
+        }
+    }
+
+    public boolean hasParent() {
+        return parentArtifactId != null;
+    }
+
+    public String getParentGroupId() {
+        return text(parentGroupId);
+    }
+
+    public String getParentArtifactId() {
+        return text(parentArtifactId);
+    }
+
+    public String getParentVersion() {
+        return text(parentVersion);
+    }
+
+    /**
+     * Sets the project version, adding a version element after the artifactId if the POM doesn't declare one (i.e.
+     * inherits the version from its parent).
+     */
+    public void setVersion(final String newVersion) {
+        if (version != null) {
+            replace(version, newVersion);
+        } else {
+            // Insert right after </artifactId>, on its own line with the same indentation
+            final int artifactIdEnd = pom.indexOf('>', artifactId.end) + 1;
+            final int lineStart = pom.lastIndexOf('\n', pom.lastIndexOf('<', artifactId.start - 1)) + 1;
+            int indentEnd = lineStart;
+            while (indentEnd < pom.length() && (pom.charAt(indentEnd) == ' ' || pom.charAt(indentEnd) == '\t')) {
+                indentEnd++;
+            }
+            final String indent = pom.substring(lineStart, indentEnd);
+            replace(new Span(artifactIdEnd, artifactIdEnd),
+                    lineSeparator() + indent + "<" + VERSION + ">" + newVersion + "</" + VERSION + ">");
+        }
+    }
+
+    public void setParentVersion(final String newVersion) {
+        if (parentVersion != null) {
+            replace(parentVersion, newVersion);
+        }
+    }
+
+    /**
+     * @return the POM with all changes applied, in its original encoding.
+     */
+    public byte[] toByteArray() {
+        final StringBuilder sb = new StringBuilder(pom.length() + 64);
+        int last = 0;
+        for (final Map.Entry<Span, String> replacement : replacements.entrySet()) {
+            sb.append(pom, last, replacement.getKey().start).append(replacement.getValue());
+            last = replacement.getKey().end;
+        }
+        sb.append(pom, last, pom.length());
+        return sb.toString().getBytes(charset);
+    }
+
+    private void replace(final Span span, final String text) {
+        replacements.put(span, text);
+    }
+
+    private String text(final Span span) {
+        return span != null ? pom.substring(span.start, span.end).trim() : null;
+    }
+
+    private String lineSeparator() {
+        return pom.contains("\r\n") ? "\r\n" : "\n";
+    }
+
+    private static String localName(final String pom, final int start) {
+        int end = start;
+        while (end < pom.length() && !Character.isWhitespace(pom.charAt(end)) && pom.charAt(end) != '>' &&
+                pom.charAt(end) != '/') {
+            end++;
+        }
+        final String name = pom.substring(start, end);
+        return name.substring(name.indexOf(':') + 1);
+    }
+
+    // Finds the end of a start tag, skipping over quoted attribute values
+    private static int skipTag(final String pom, final int start) throws IOException {
+        char quote = 0;
+        for (int i = start + 1; i < pom.length(); i++) {
+            final char c = pom.charAt(i);
+            if (quote != 0) {
+                if (c == quote) {
+                    quote = 0;
+                }
+            } else if (c == '"' || c == '\'') {
+                quote = c;
+            } else if (c == '>') {
+                return i + 1;
+            }
+        }
+        throw new IOException("Unterminated tag at offset " + start);
+    }
+
+    private static int skipPast(final String pom, final int start, final String terminator) throws IOException {
+        final int end = pom.indexOf(terminator, start);
+        if (end < 0) {
+            throw new IOException("Expected '" + terminator + "' after offset " + start);
+        }
+        return end + terminator.length();
+    }
+}
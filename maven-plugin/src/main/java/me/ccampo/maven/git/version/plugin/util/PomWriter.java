@@ -0,0 +1,52 @@
+package me.ccampo.maven.git.version.plugin.util;
+
+import org.apache.maven.model.Model;
+import org.apache.maven.model.io.xpp3.MavenXpp3Writer;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Arrays;
+
+/**
+ * Writes generated POMs, leaving files which already have the exact same content untouched. This saves the write and
+ * keeps the file's timestamp stable across builds that infer the same version, so tools watching POM modification
+ * times aren't triggered needlessly.
+ */
+public class PomWriter {
+
+    /**
+     * Serializes the model into the given file, unless the file already contains exactly those bytes.
+     *
+     * @return the number of bytes written, or -1 if the existing file was reused.
+     */
+    public long write(final Model model, final File file) throws IOException {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        // Writes in the model's encoding, matching the XML declaration
+        new MavenXpp3Writer().write(out, model);
+        return write(out.toByteArray(), file);
+    }
+
+    /**
+     * Writes the given contents into the given file, unless the file already contains exactly those bytes.
+     *
+     * @return the number of bytes written, or -1 if the existing file was reused.
+     */
+    public long write(final byte[] contents, final File file) throws IOException {
+        if (hasContent(file, contents)) {
+            return -1;
+        }
+
+        Files.write(file.toPath(), contents);
+        return contents.length;
+    }
+
+    private static boolean hasContent(final File file, final byte[] contents) throws IOException {
+        // Only read the existing file if it could possibly match
+        if (!file.isFile() || file.length() != contents.length) {
+            return false;
+        }
+        return Arrays.equals(Files.readAllBytes(file.toPath()), contents);
+    }
+}
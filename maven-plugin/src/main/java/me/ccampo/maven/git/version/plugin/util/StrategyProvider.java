@@ -0,0 +1,108 @@
+package me.ccampo.maven.git.version.plugin.util;
+
+import me.ccampo.maven.git.version.core.strategy.VersionStrategy;
+import org.apache.maven.MavenExecutionException;
+import org.codehaus.plexus.PlexusContainer;
+import org.codehaus.plexus.component.configurator.ComponentConfigurationException;
+import org.codehaus.plexus.component.configurator.ComponentConfigurator;
+import org.codehaus.plexus.component.configurator.expression.DefaultExpressionEvaluator;
+import org.codehaus.plexus.component.repository.exception.ComponentLookupException;
+import org.codehaus.plexus.configuration.xml.XmlPlexusConfiguration;
+import org.codehaus.plexus.util.xml.Xpp3Dom;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Looks up and configures version strategies, once per distinct strategy configuration. In the usual reactor, where
+ * every module inherits the same {@code <strategy>} element from a parent, this means a single lookup and a single
+ * (reflective) configuration for the whole build.
+ */
+public class StrategyProvider {
+
+    /**
+     * A strategy hint and its configuration, compared structurally.
+     */
+    public static class Key {
+        final String hint;
+        final Xpp3Dom configuration;
+
+        public Key(final String hint, final Xpp3Dom configuration) {
+            this.hint = hint;
+            this.configuration = configuration;
+        }
+
+        @Override
+        public boolean equals(final Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Key)) return false;
+            final Key key = (Key) o;
+            return Objects.equals(hint, key.hint) && Objects.equals(configuration, key.configuration);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(hint, configuration);
+        }
+    }
+
+    private final Map<Key, VersionStrategy> strategies;
+    private final PlexusContainer container;
+
+    public StrategyProvider(final Map<Key, VersionStrategy> strategies, final PlexusContainer container) {
+        this.strategies = strategies;
+        this.container = container;
+    }
+
+    public StrategyProvider(final PlexusContainer container) {
+        this(new ConcurrentHashMap<>(), container);
+    }
+
+    /**
+     * @param hint          the component hint of the strategy.
+     * @param configuration the {@code <strategy>} element configuring it.
+     * @return a strategy configured accordingly, shared with every other caller passing an equal configuration.
+     */
+    public VersionStrategy getStrategy(final String hint, final Xpp3Dom configuration)
+            throws MavenExecutionException {
+        final Key key = new Key(hint, configuration);
+        // Can't use computeIfAbsent here elegantly due to checked exceptions
+        final VersionStrategy cached = strategies.get(key);
+        if (cached != null) {
+            return cached;
+        }
+
+        try {
+            final VersionStrategy strategy = container.lookup(VersionStrategy.class, hint);
+            configure(strategy, configuration, container);
+            // Should another thread have raced us here, everyone still ends up with the same instance
+            final VersionStrategy existing = strategies.putIfAbsent(key, strategy);
+            return existing != null ? existing : strategy;
+        } catch (final ComponentLookupException e) {
+            throw new MavenExecutionException(e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Applies the given {@code <strategy>} configuration to the strategy.
+     */
+    public static void configure(
+            final VersionStrategy strategy,
+            final Xpp3Dom configuration,
+            final PlexusContainer container
+    ) throws MavenExecutionException {
+        try {
+            final ComponentConfigurator configurator = container.lookup(ComponentConfigurator.class, "basic");
+            configurator.configureComponent(
+                    strategy,
+                    new XmlPlexusConfiguration(configuration),
+                    new DefaultExpressionEvaluator(),
+                    null,
+                    null
+            );
+        } catch (final ComponentLookupException | ComponentConfigurationException e) {
+            throw new MavenExecutionException(e.getMessage(), e);
+        }
+    }
+}
@@ -0,0 +1,138 @@
+package me.ccampo.maven.git.version.plugin;
+
+import me.ccampo.maven.git.version.core.strategy.VersionStrategy;
+import me.ccampo.maven.git.version.plugin.util.ModelProvider;
+import me.ccampo.maven.git.version.plugin.util.PluginConfig;
+import me.ccampo.maven.git.version.plugin.util.PluginConfigProvider;
+import org.apache.maven.artifact.DefaultArtifact;
+import org.apache.maven.artifact.handler.DefaultArtifactHandler;
+import org.apache.maven.execution.DefaultMavenExecutionRequest;
+import org.apache.maven.execution.DefaultMavenExecutionResult;
+import org.apache.maven.execution.MavenExecutionRequest;
+import org.apache.maven.execution.MavenSession;
+import org.apache.maven.model.Build;
+import org.apache.maven.model.Model;
+import org.apache.maven.model.Plugin;
+import org.apache.maven.project.MavenProject;
+import org.codehaus.plexus.PlexusContainer;
+import org.codehaus.plexus.component.configurator.ComponentConfigurator;
+import org.codehaus.plexus.component.configurator.expression.ExpressionEvaluator;
+import org.codehaus.plexus.configuration.PlexusConfiguration;
+import org.codehaus.plexus.logging.Logger;
+import org.codehaus.plexus.util.xml.Xpp3Dom;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class VersionInferenceExtensionTest {
+
+    @Mock
+    private PlexusContainer container;
+
+    @Mock
+    private ComponentConfigurator configurator;
+
+    private VersionInferenceExtension extension;
+
+    @Before
+    public void setUp() throws Exception {
+        MockitoAnnotations.initMocks(this);
+        when(container.lookup(ComponentConfigurator.class, "basic")).thenReturn(configurator);
+        doAnswer(invocation -> {
+            final SuffixStrategy strategy = invocation.getArgument(0);
+            strategy.suffix = invocation.<PlexusConfiguration>getArgument(1).getChild("suffix").getValue();
+            return null;
+        }).when(configurator).configureComponent(
+                any(SuffixStrategy.class),
+                any(PlexusConfiguration.class),
+                any(ExpressionEvaluator.class),
+                eq(null),
+                eq(null)
+        );
+
+        final ModelProvider modelProvider = mock(ModelProvider.class);
+        when(modelProvider.getModel(any(MavenProject.class))).thenReturn(new Model());
+
+        extension = new VersionInferenceExtension();
+        extension.setLogger(mock(Logger.class));
+        extension.setContainer(container);
+        extension.setPluginConfigProvider(new PluginConfigProvider(container));
+        extension.setModelProvider(modelProvider);
+    }
+
+    @Test
+    public void afterProjectsRead_SingletonStrategyConfiguredPerProject() throws Exception {
+        // Plexus hands out the same instance for every lookup
+        when(container.lookup(VersionStrategy.class, "suffix")).thenReturn(new SuffixStrategy());
+        final MavenProject a = project("a", "one");
+        final MavenProject b = project("b", "two");
+
+        extension.afterProjectsRead(session(a, b));
+
+        assertThat(a.getVersion()).isEqualTo("1.0.0-one");
+        assertThat(b.getVersion()).isEqualTo("1.0.0-two");
+    }
+
+    // Only validating, so that no POM needs to be written
+    private MavenSession session(final MavenProject... projects) {
+        final MavenExecutionRequest request = new DefaultMavenExecutionRequest();
+        request.setGoals(Collections.singletonList("validate"));
+        final List<MavenProject> allProjects = Arrays.asList(projects);
+        final MavenSession session =
+                new MavenSession(container, request, new DefaultMavenExecutionResult(), allProjects);
+        session.setAllProjects(allProjects);
+        return session;
+    }
+
+    private static MavenProject project(final String artifactId, final String suffix) {
+        final Model model = new Model();
+        model.setGroupId("com.example");
+        model.setArtifactId(artifactId);
+        model.setVersion("0");
+        model.setBuild(new Build());
+        final MavenProject project = new MavenProject(model);
+        project.getBuild().setFinalName(artifactId + "-0");
+        project.setArtifact(new DefaultArtifact(
+                "com.example", artifactId, "0", null, "jar", null, new DefaultArtifactHandler("jar")
+        ));
+
+        final Xpp3Dom suffixNode = new Xpp3Dom("suffix");
+        suffixNode.setValue(suffix);
+        final Xpp3Dom strategyNode = new Xpp3Dom(PluginConfig.STRATEGY_NODE_NAME);
+        strategyNode.setAttribute(PluginConfig.STRATEGY_HINT, "suffix");
+        strategyNode.addChild(suffixNode);
+        final Xpp3Dom lazyPom = new Xpp3Dom(PluginConfig.LAZY_POM);
+        lazyPom.setValue("true");
+        final Xpp3Dom configuration = new Xpp3Dom("configuration");
+        configuration.addChild(lazyPom);
+        configuration.addChild(strategyNode);
+
+        final Plugin plugin = new Plugin();
+        plugin.setGroupId("me.ccampo");
+        plugin.setArtifactId("git-version-maven-plugin");
+        plugin.setConfiguration(configuration);
+        project.getBuild().addPlugin(plugin);
+        return project;
+    }
+
+    public static class SuffixStrategy implements VersionStrategy {
+        String suffix;
+
+        @Override
+        public String getVersion(final MavenProject mavenProject) {
+            return "1.0.0-" + suffix;
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package me.ccampo.maven.git.version.plugin.util;
+
+import me.ccampo.maven.git.version.plugin.util.InferenceReport.Phase;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class InferenceReportTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void record_AggregatesPerProject() {
+        final InferenceReport report = new InferenceReport();
+        report.record("foo:bar", Phase.POM_PARSING, 1_000_000, false);
+        report.record("foo:bar", Phase.POM_PARSING, 2_000_000, true);
+        report.recordBytesWritten("foo:bar", 42);
+
+        final InferenceReport.Stats stats = report.getProjects().get("foo:bar");
+        assertThat(stats.getNanos(Phase.POM_PARSING)).isEqualTo(3_000_000);
+        assertThat(stats.getNanos(Phase.POM_WRITING)).isZero();
+        assertThat(stats.getCacheHits()).isEqualTo(1);
+        assertThat(stats.getCalls()).isEqualTo(2);
+        assertThat(stats.getBytesWritten()).isEqualTo(42);
+    }
+
+    @Test
+    public void toTable() {
+        final InferenceReport report = new InferenceReport();
+        report.record("foo:bar", Phase.INFERENCE, 1_500_000, false);
+        report.recordStrategy("GitVersionStrategy", 1_500_000);
+
+        assertThat(report.toTable())
+                .hasSize(5)
+                .anySatisfy(line -> assertThat(line).startsWith("foo:bar").contains("1.5"))
+                .anySatisfy(line -> assertThat(line).startsWith("total"))
+                .anySatisfy(line -> assertThat(line).isEqualTo("strategy GitVersionStrategy: 1 call(s), 1.5 ms"));
+    }
+
+    @Test
+    public void writeJson() throws Exception {
+        final InferenceReport report = new InferenceReport();
+        report.record("foo:\"bar\"", Phase.POM_WRITING, 1_000_000, false);
+        report.recordStrategy("FileStrategy", 1_000_000);
+
+        final File file = new File(folder.getRoot(), "target/report.json");
+        report.writeJson(file);
+
+        final String json = new String(Files.readAllBytes(file.toPath()), StandardCharsets.UTF_8);
+        assertThat(json)
+                .contains("\"project\": \"foo:\\\"bar\\\"\"")
+                .contains("\"writeMillis\": 1.000")
+                .contains("\"strategy\": \"FileStrategy\"");
+    }
+}
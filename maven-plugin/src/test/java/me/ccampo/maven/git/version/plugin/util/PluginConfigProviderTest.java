@@ -43,7 +43,7 @@ public class PluginConfigProviderTest {
     @Test
     public void getForProject_AlreadyExists() throws MavenExecutionException {
         final MavenProject project = new MavenProject();
-        final PluginConfig existingConfig = new PluginConfig(false, false, false, mock(VersionStrategy.class));
+        final PluginConfig existingConfig = new PluginConfig(false, false, false, false, false, mock(VersionStrategy.class));
         projectConfigs.put(project, existingConfig);
         final PluginConfig config = provider.getForProject(project);
         assertThat(config).isEqualTo(existingConfig);
@@ -0,0 +1,89 @@
+package me.ccampo.maven.git.version.plugin.util;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class PomPatcherTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void setVersion_PreservesEverythingElse() throws Exception {
+        final String pom = "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n" +
+                "<!-- <version>comment</version> -->\n" +
+                "<project xmlns=\"http://maven.apache.org/POM/4.0.0\">\n" +
+                "  <parent>\n" +
+                "    <groupId>foo</groupId>\n" +
+                "    <artifactId>parent</artifactId>\n" +
+                "    <version>1.0.0-SNAPSHOT</version>\n" +
+                "  </parent>\n" +
+                "  <artifactId>bar</artifactId>\n" +
+                "  <version> 1.0.0-SNAPSHOT </version>   <!-- keep me -->\n" +
+                "  <dependencies>\n" +
+                "    <dependency><version>2.0</version></dependency>\n" +
+                "  </dependencies>\n" +
+                "  <empty/>\n" +
+                "</project>\n";
+
+        final PomPatcher patcher = PomPatcher.read(write(pom));
+        assertThat(patcher.hasParent()).isTrue();
+        assertThat(patcher.getParentGroupId()).isEqualTo("foo");
+        assertThat(patcher.getParentArtifactId()).isEqualTo("parent");
+        assertThat(patcher.getParentVersion()).isEqualTo("1.0.0-SNAPSHOT");
+
+        patcher.setVersion("1.2.3");
+        patcher.setParentVersion("4.5.6");
+
+        assertThat(new String(patcher.toByteArray(), StandardCharsets.UTF_8)).isEqualTo(pom
+                .replace("<version>1.0.0-SNAPSHOT</version>", "<version>4.5.6</version>")
+                .replace("<version> 1.0.0-SNAPSHOT </version>", "<version>1.2.3</version>"));
+    }
+
+    @Test
+    public void setVersion_Inherited_InsertsVersion() throws Exception {
+        final String pom = "<project>\n" +
+                "    <parent>\n" +
+                "        <artifactId>parent</artifactId>\n" +
+                "        <version>1.0.0</version>\n" +
+                "    </parent>\n" +
+                "    <artifactId>bar</artifactId>\n" +
+                "</project>\n";
+
+        final PomPatcher patcher = PomPatcher.read(write(pom));
+        patcher.setVersion("1.2.3");
+
+        assertThat(new String(patcher.toByteArray(), StandardCharsets.UTF_8)).isEqualTo(pom.replace(
+                "<artifactId>bar</artifactId>\n",
+                "<artifactId>bar</artifactId>\n    <version>1.2.3</version>\n"
+        ));
+    }
+
+    @Test
+    public void read_NoParent() throws Exception {
+        final PomPatcher patcher = PomPatcher.read(write("<project><artifactId>bar</artifactId></project>"));
+        assertThat(patcher.hasParent()).isFalse();
+        assertThat(patcher.getParentVersion()).isNull();
+    }
+
+    @Test
+    public void read_NotAPom() throws Exception {
+        final File file = write("<settings><artifactId>bar</artifactId></settings>");
+        assertThatThrownBy(() -> PomPatcher.read(file)).isInstanceOf(IOException.class);
+    }
+
+    private File write(final String pom) throws IOException {
+        final File file = folder.newFile("pom.xml");
+        Files.write(file.toPath(), pom.getBytes(StandardCharsets.UTF_8));
+        return file;
+    }
+}
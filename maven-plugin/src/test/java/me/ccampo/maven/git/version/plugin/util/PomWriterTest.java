@@ -0,0 +1,67 @@
+package me.ccampo.maven.git.version.plugin.util;
+
+import org.apache.maven.model.Model;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class PomWriterTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private final PomWriter writer = new PomWriter();
+
+    @Test
+    public void write_NewFile() throws Exception {
+        final File file = new File(folder.getRoot(), "pom.xml.new-version");
+
+        final long written = writer.write(model("1.0.0"), file);
+
+        assertThat(written).isEqualTo(file.length()).isPositive();
+        assertThat(read(file)).contains("<version>1.0.0</version>");
+    }
+
+    @Test
+    public void write_SameContent_KeepsFile() throws Exception {
+        final File file = new File(folder.getRoot(), "pom.xml.new-version");
+        writer.write(model("1.0.0"), file);
+        assertThat(file.setLastModified(1_000_000_000L)).isTrue();
+
+        final long written = writer.write(model("1.0.0"), file);
+
+        assertThat(written).isEqualTo(-1);
+        assertThat(file.lastModified()).isEqualTo(1_000_000_000L);
+    }
+
+    @Test
+    public void write_DifferentContent_Rewrites() throws Exception {
+        final File file = new File(folder.getRoot(), "pom.xml.new-version");
+        writer.write(model("1.0.0"), file);
+
+        // Same length, different bytes
+        final long written = writer.write(model("1.0.1"), file);
+
+        assertThat(written).isPositive();
+        assertThat(read(file)).contains("<version>1.0.1</version>");
+    }
+
+    private static String read(final File file) throws Exception {
+        return new String(Files.readAllBytes(file.toPath()), StandardCharsets.UTF_8);
+    }
+
+    private static Model model(final String version) {
+        final Model model = new Model();
+        model.setModelVersion("4.0.0");
+        model.setGroupId("foo");
+        model.setArtifactId("bar");
+        model.setVersion(version);
+        return model;
+    }
+}
@@ -0,0 +1,78 @@
+package me.ccampo.maven.git.version.plugin.util;
+
+import me.ccampo.maven.git.version.core.strategy.VersionStrategy;
+import org.codehaus.plexus.PlexusContainer;
+import org.codehaus.plexus.component.configurator.ComponentConfigurator;
+import org.codehaus.plexus.component.configurator.expression.ExpressionEvaluator;
+import org.codehaus.plexus.configuration.PlexusConfiguration;
+import org.codehaus.plexus.util.xml.Xpp3Dom;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class StrategyProviderTest {
+
+    @Mock
+    private PlexusContainer container;
+
+    @Mock
+    private ComponentConfigurator configurator;
+
+    private StrategyProvider provider;
+
+    @Before
+    public void setUp() throws Exception {
+        MockitoAnnotations.initMocks(this);
+        when(container.lookup(ComponentConfigurator.class, "basic")).thenReturn(configurator);
+        provider = new StrategyProvider(container);
+    }
+
+    @Test
+    public void getStrategy_EqualConfigurations_ConfiguredOnce() throws Exception {
+        final VersionStrategy strategy = mock(VersionStrategy.class);
+        when(container.lookup(VersionStrategy.class, "git")).thenReturn(strategy);
+
+        assertThat(provider.getStrategy("git", strategyNode("git", "dev"))).isSameAs(strategy);
+        assertThat(provider.getStrategy("git", strategyNode("git", "dev"))).isSameAs(strategy);
+
+        verify(container, times(1)).lookup(VersionStrategy.class, "git");
+        verify(configurator, times(1)).configureComponent(
+                eq(strategy),
+                any(PlexusConfiguration.class),
+                any(ExpressionEvaluator.class),
+                eq(null),
+                eq(null)
+        );
+    }
+
+    @Test
+    public void getStrategy_DifferentConfigurations() throws Exception {
+        final VersionStrategy dev = mock(VersionStrategy.class);
+        final VersionStrategy rc = mock(VersionStrategy.class);
+        when(container.lookup(VersionStrategy.class, "git")).thenReturn(dev, rc);
+
+        assertThat(provider.getStrategy("git", strategyNode("git", "dev"))).isSameAs(dev);
+        assertThat(provider.getStrategy("git", strategyNode("git", "rc"))).isSameAs(rc);
+        assertThat(provider.getStrategy("git", strategyNode("git", "dev"))).isSameAs(dev);
+
+        verify(container, times(2)).lookup(VersionStrategy.class, "git");
+    }
+
+    private static Xpp3Dom strategyNode(final String hint, final String preReleaseStage) {
+        final Xpp3Dom strategyNode = new Xpp3Dom(PluginConfig.STRATEGY_NODE_NAME);
+        strategyNode.setAttribute(PluginConfig.STRATEGY_HINT, hint);
+        final Xpp3Dom stage = new Xpp3Dom("preReleaseStage");
+        stage.setValue(preReleaseStage);
+        strategyNode.addChild(stage);
+        return strategyNode;
+    }
+}
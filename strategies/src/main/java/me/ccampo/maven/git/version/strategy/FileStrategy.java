@@ -18,46 +18,120 @@ package me.ccampo.maven.git.version.strategy;
 
 import me.ccampo.maven.git.version.core.VersionException;
 import me.ccampo.maven.git.version.core.strategy.VersionStrategy;
+import me.ccampo.maven.git.version.strategy.file.VersionFileCache;
+import me.ccampo.maven.git.version.strategy.file.VersionManifest;
+import org.apache.maven.plugin.LegacySupport;
 import org.apache.maven.project.MavenProject;
 import org.codehaus.plexus.component.annotations.Component;
 import org.codehaus.plexus.component.annotations.Configuration;
-import org.codehaus.plexus.util.IOUtil;
+import org.codehaus.plexus.component.annotations.Requirement;
 
-import java.io.BufferedReader;
 import java.io.File;
-import java.io.FileReader;
 import java.io.IOException;
+import java.util.Locale;
+import java.util.Map;
 
 /**
  * Strategy which reads a version string from a 'VERSION' file which  contains a single version string such as '1.2.3'.
+ * <p>
+ * Alternatively, a single manifest may list the versions of many projects, keyed by {@code groupId:artifactId}; see
+ * {@link VersionManifest} for the supported formats.
+ * <p>
+ * Version files are read (and manifests parsed) once per build, however many projects point at them.
  *
  * @author <a href="mailto:bdemers@apache.org">Brian Demers</a>
  */
-@Component(role = VersionStrategy.class, hint = "file")
+@Component(role = VersionStrategy.class, hint = "file", instantiationStrategy = "per-lookup")
 public class FileStrategy implements VersionStrategy {
 
+    public static final String FORMAT_TEXT = "text";
+
     @Configuration("VERSION")
     private String versionFilePath = "VERSION";
 
+    // One of text, properties, json or yaml
+    @Configuration(FORMAT_TEXT)
+    private String format = FORMAT_TEXT;
+
+    // Only used to scope the version file cache to the current build session
+    @Requirement(optional = true)
+    private LegacySupport legacySupport;
+
+    private final VersionFileCache cache = VersionFileCache.getInstance();
+
     @Override
     public String getVersion(final MavenProject mavenProject) throws VersionException {
-        final String versionString;
+        cache.bindSession(legacySupport != null ? legacySupport.getSession() : null);
+        final File versionFile = canonicalize(new File(mavenProject.getBasedir(), versionFilePath));
+        final VersionManifest.Format manifestFormat = getManifestFormat();
+        if (manifestFormat == null) {
+            return readVersion(versionFile);
+        }
 
-        final File versionFile = new File(mavenProject.getBasedir(), versionFilePath);
-        BufferedReader reader = null;
+        final String key = mavenProject.getGroupId() + ":" + mavenProject.getArtifactId();
+        final String version = readManifest(versionFile, manifestFormat).get(key);
+        if (version == null) {
+            throw new VersionException(
+                    "No version for " + key + " in version file: [" + versionFile.getAbsolutePath() + "]"
+            );
+        }
+        return version;
+    }
+
+    private static File canonicalize(final File file) {
+        try {
+            return file.getCanonicalFile();
+        } catch (final IOException e) {
+            // Reading it will most likely fail too, with a better message
+            return file.getAbsoluteFile();
+        }
+    }
+
+    private String readVersion(final File versionFile) throws VersionException {
         try {
-            reader = new BufferedReader(new FileReader(versionFile));
             // just return the first line of the file, any other format is NOT supported.
-            versionString = reader.readLine();
+            return cache.getFirstLine(versionFile);
         } catch (final IOException e) {
             throw new VersionException(
                     "Failed to read version file: [" + versionFile.getAbsolutePath() + "]",
                     e
             );
-        } finally {
-            IOUtil.close(reader);
         }
+    }
+
+    private Map<String, String> readManifest(final File versionFile, final VersionManifest.Format manifestFormat)
+            throws VersionException {
+        try {
+            return cache.getManifest(versionFile, manifestFormat);
+        } catch (final IOException e) {
+            throw new VersionException(
+                    "Failed to read version file: [" + versionFile.getAbsolutePath() + "]: " + e.getMessage(),
+                    e
+            );
+        }
+    }
+
+    // null for plain text
+    private VersionManifest.Format getManifestFormat() throws VersionException {
+        if (format == null || format.trim().isEmpty() || format.trim().equalsIgnoreCase(FORMAT_TEXT)) {
+            return null;
+        }
+        try {
+            return VersionManifest.Format.valueOf(format.trim().toUpperCase(Locale.ROOT));
+        } catch (final IllegalArgumentException e) {
+            throw new VersionException("Unsupported version file format: " + format);
+        }
+    }
+
+    public void setVersionFilePath(final String versionFilePath) {
+        this.versionFilePath = versionFilePath;
+    }
+
+    public void setFormat(final String format) {
+        this.format = format;
+    }
 
-        return versionString;
+    public void setLegacySupport(final LegacySupport legacySupport) {
+        this.legacySupport = legacySupport;
     }
 }
@@ -2,23 +2,56 @@ package me.ccampo.maven.git.version.strategy;
 
 import com.github.zafarkhaja.semver.Version;
 import fr.brouillard.oss.jgitver.GitVersionCalculator;
-import fr.brouillard.oss.jgitver.metadata.Metadatas;
 import me.ccampo.maven.git.version.core.VersionException;
 import me.ccampo.maven.git.version.core.strategy.VersionStrategy;
+import me.ccampo.maven.git.version.strategy.git.CalculatedVersion;
+import me.ccampo.maven.git.version.strategy.git.ChangedPathIndex;
+import me.ccampo.maven.git.version.strategy.git.DirtyCheck;
+import me.ccampo.maven.git.version.strategy.git.GitVersionCache;
+import me.ccampo.maven.git.version.strategy.git.HistoryVersionCalculator;
+import me.ccampo.maven.git.version.strategy.git.PersistentVersionCache;
+import me.ccampo.maven.git.version.strategy.git.RepositoryKey;
+import me.ccampo.maven.git.version.strategy.git.SharedRepositoryCache;
+import me.ccampo.maven.git.version.strategy.git.TagFilter;
+import me.ccampo.maven.git.version.strategy.git.TagIndex;
+import me.ccampo.maven.git.version.strategy.git.WindowCacheSettings;
+import org.apache.maven.plugin.LegacySupport;
 import org.apache.maven.project.MavenProject;
 import org.codehaus.plexus.component.annotations.Component;
 import org.codehaus.plexus.component.annotations.Configuration;
+import org.codehaus.plexus.component.annotations.Requirement;
+import org.codehaus.plexus.logging.Logger;
+import org.eclipse.jgit.lib.Constants;
+import org.eclipse.jgit.lib.ObjectId;
+import org.eclipse.jgit.lib.Repository;
+import org.eclipse.jgit.storage.file.FileRepositoryBuilder;
 
 import java.io.File;
+import java.io.IOException;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.Properties;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
 
-@Component(role = VersionStrategy.class, hint = "git")
+@Component(role = VersionStrategy.class, hint = "git", instantiationStrategy = "per-lookup")
 public class GitVersionStrategy implements VersionStrategy {
 
     public static final String DEFAULT_NON_QUALIFIED_BRANCH = "master";
     public static final String DEFAULT_PRE_RELEASE_STAGE = "dev";
     public static final String DEFAULT_DIRTY_QUALIFIER = "uncommitted";
+    public static final String DEFAULT_TRUNCATED_QUALIFIER = "truncated";
+    public static final String DEFAULT_DIRTY_CHECK = "full";
+    public static final String DIRTY_CHECK_SCOPE_REPOSITORY = "repository";
+    public static final String DIRTY_CHECK_SCOPE_MODULE = "module";
+    public static final String DISTANCE_SCOPE_REPOSITORY = "repository";
+    public static final String DISTANCE_SCOPE_MODULE = "module";
+    public static final String DEFAULT_CI_TAG_VARIABLES =
+            "CI_COMMIT_TAG,GITHUB_REF,TRAVIS_TAG,CIRCLE_TAG,BUILDKITE_TAG,TAG_NAME";
     public static final String PROPERTY_PREFIX = "project.";
     public static final String NORMAL_VERSION_PROPERTY = PROPERTY_PREFIX + "normalVersion";
     public static final String PRE_RELEASE_VERSION_PROPERTY = PROPERTY_PREFIX + "preReleaseVersion";
@@ -35,16 +68,412 @@ public class GitVersionStrategy implements VersionStrategy {
     @Configuration(name = "dirtyQualifier", value = DEFAULT_DIRTY_QUALIFIER)
     private String dirtyQualifier;
 
+    @Configuration(name = "truncatedQualifier", value = DEFAULT_TRUNCATED_QUALIFIER)
+    private String truncatedQualifier;
+
+    @Configuration(name = "tagPrefix", value = "")
+    private String tagPrefix;
+
+    // Regular expressions matched against whole tag names
+    @Configuration(name = "tagIncludes", value = "")
+    private String tagIncludes;
+
+    @Configuration(name = "tagExcludes", value = "")
+    private String tagExcludes;
+
+    // 0 walks all of the history
+    @Configuration(name = "maxWalkDepth", value = "0")
+    private Integer maxWalkDepth;
+
+    @Configuration(name = "dirtyCheck", value = DEFAULT_DIRTY_CHECK)
+    private String dirtyCheck;
+
+    @Configuration(name = "dirtyCheckScope", value = DIRTY_CHECK_SCOPE_REPOSITORY)
+    private String dirtyCheckScope;
+
+    @Configuration(name = "distanceScope", value = DISTANCE_SCOPE_REPOSITORY)
+    private String distanceScope;
+
+    // 1 checks sequentially, 0 uses one thread per available processor
+    @Configuration(name = "dirtyCheckThreads", value = "1")
+    private Integer dirtyCheckThreads;
+
+    // JGit's window cache; sizes in bytes, with optional k, m or g suffix. Empty values keep JGit's defaults.
+    @Configuration(name = "packedGitWindowSize", value = "")
+    private String packedGitWindowSize;
+
+    @Configuration(name = "packedGitLimit", value = "")
+    private String packedGitLimit;
+
+    @Configuration(name = "deltaBaseCacheLimit", value = "")
+    private String deltaBaseCacheLimit;
+
+    @Configuration(name = "packedGitMmap", value = "")
+    private String packedGitMmap;
+
+    @Configuration(name = "jvmCache", value = "false")
+    private Boolean jvmCache;
+
+    // In seconds
+    @Configuration(name = "jvmCacheTtl", value = "3600")
+    private Integer jvmCacheTtl;
+
+    @Configuration(name = "ciEnvironment", value = "false")
+    private Boolean ciEnvironment;
+
+    // Comma separated, in order of precedence
+    @Configuration(name = "ciTagVariables", value = DEFAULT_CI_TAG_VARIABLES)
+    private String ciTagVariables;
+
     @Configuration(name = "snapshot", value = "false")
     private Boolean snapshot;
 
+    @Configuration(name = "persistentCache", value = "false")
+    private Boolean persistentCache;
+
+    @Configuration(name = "persistentTagIndex", value = "false")
+    private Boolean persistentTagIndex;
+
+    @Requirement(optional = true)
+    private Logger log;
+
+    // Only used to scope the version cache and the window cache settings to the current build session
+    @Requirement(optional = true)
+    private LegacySupport legacySupport;
+
+    private final GitVersionCache cache = new GitVersionCache();
+
+    private boolean windowCacheConflictReported;
+
+    // Keyed by canonical git directory; kept for as long as the strategy, so later builds only index new tags
+    private final Map<File, TagIndex> tagIndexes = new HashMap<>();
+
+    // Keyed by canonical git directory; only the index of the latest HEAD and base commit is kept
+    private final Map<File, ChangedPathIndex> changedPathIndexes = new HashMap<>();
+
+    // Created on first use; its threads die off by themselves once idle
+    private ForkJoinPool dirtyCheckPool;
+
     @Override
     public String getVersion(final MavenProject mavenProject) throws VersionException {
+        final CalculatedVersion ciVersion = getCiVersion();
+        if (ciVersion != null) {
+            return applyVersion(mavenProject, ciVersion);
+        }
+        applyWindowCacheSettings();
+        return getVersion(mavenProject, resolveRepositoryKey(mavenProject.getBasedir()));
+    }
+
+    @Override
+    public Map<MavenProject, String> getVersions(final Collection<MavenProject> mavenProjects)
+            throws VersionException {
+        final Map<MavenProject, String> versions = new LinkedHashMap<>();
+        final CalculatedVersion ciVersion = getCiVersion();
+        if (ciVersion != null) {
+            for (final MavenProject mavenProject : mavenProjects) {
+                versions.put(mavenProject, applyVersion(mavenProject, ciVersion));
+            }
+            return versions;
+        }
+
+        applyWindowCacheSettings();
+
+        // Resolve HEAD once per git directory rather than once per module
+        final Map<File, RepositoryKey> keys = new HashMap<>();
+        for (final MavenProject mavenProject : mavenProjects) {
+            final File gitDir = RepositoryKey.findGitDir(mavenProject.getBasedir());
+            RepositoryKey key = null;
+            if (gitDir != null) {
+                if (!keys.containsKey(gitDir)) {
+                    keys.put(gitDir, resolveRepositoryKey(gitDir, mavenProject.getBasedir()));
+                }
+                key = keys.get(gitDir);
+            }
+            versions.put(mavenProject, getVersion(mavenProject, key));
+        }
+        return versions;
+    }
+
+    private String getVersion(final MavenProject mavenProject, final RepositoryKey key) throws VersionException {
         final File rootDir = mavenProject.getBasedir();
+
+        final CalculatedVersion calculatedVersion;
+        if (key != null) {
+            cache.bindSession(legacySupport != null ? legacySupport.getSession() : null);
+            final CalculatedVersion repositoryVersion = cache.get(key, () -> calculateWithCaches(key, rootDir));
+            final CalculatedVersion moduleVersion = isDistanceModuleScoped()
+                    ? getModuleVersion(key, repositoryVersion, rootDir)
+                    : repositoryVersion;
+            calculatedVersion = isModuleScoped()
+                    ? moduleVersion.withDirty(isModuleDirty(key, rootDir))
+                    : moduleVersion;
+        } else {
+            // Not a git repository (or no commits yet); let jgitver decide what to do
+            calculatedVersion = calculate(rootDir);
+        }
+        return applyVersion(mavenProject, calculatedVersion);
+    }
+
+    private String applyVersion(final MavenProject mavenProject, final CalculatedVersion calculatedVersion) {
+        // Properties are module specific, so they are applied even when the calculation itself was shared
+        final Version semVer = toSemanticVersion(calculatedVersion);
+        setProjectProperties(mavenProject.getProperties(), semVer);
+        return semVer.toString();
+    }
+
+    /**
+     * Derives the version from the environment of a CI build of a version tag, without opening the repository. The
+     * work tree of a CI checkout is assumed to be clean.
+     *
+     * @return the version, or {@code null} if disabled, or if none of the variables names a version tag (e.g. in a
+     * build of a branch), in which case the history has to be walked.
+     * @throws VersionException if the tag patterns are invalid.
+     */
+    protected CalculatedVersion getCiVersion() throws VersionException {
+        if (ciEnvironment == null || !ciEnvironment) {
+            return null;
+        }
+
+        final Map<String, String> environment = getEnvironment();
+        final TagFilter tagFilter;
+        try {
+            tagFilter = getTagFilter();
+        } catch (final IllegalArgumentException e) {
+            throw new VersionException("Invalid tag pattern", e);
+        }
+        for (final String variable : Optional.ofNullable(ciTagVariables).orElse(DEFAULT_CI_TAG_VARIABLES).split(",")) {
+            final String value = environment.get(variable.trim());
+            if (value == null || value.trim().isEmpty()) {
+                continue;
+            }
+            // Some CI servers give the full ref, which may as well be a branch (e.g. GITHUB_REF)
+            final String refName = value.startsWith(Constants.R_REFS) ? value.trim() : Constants.R_TAGS + value.trim();
+            if (tagFilter.accepts(refName)) {
+                final fr.brouillard.oss.jgitver.Version version =
+                        fr.brouillard.oss.jgitver.Version.parse(tagFilter.versionOf(refName));
+                return CalculatedVersion.tagged(version.getMajor(), version.getMinor(), version.getPatch());
+            }
+        }
+        return null;
+    }
+
+    // This method exists solely to facilitate easier unit testing
+    protected Map<String, String> getEnvironment() {
+        return System.getenv();
+    }
+
+    // Before any repository is opened, so that every pack is read through the configured windows
+    private void applyWindowCacheSettings() throws VersionException {
+        final WindowCacheSettings.Outcome outcome;
+        try {
+            outcome = WindowCacheSettings.apply(
+                    legacySupport != null ? legacySupport.getSession() : null,
+                    packedGitWindowSize,
+                    packedGitLimit,
+                    deltaBaseCacheLimit,
+                    packedGitMmap
+            );
+        } catch (final IllegalArgumentException e) {
+            throw new VersionException("Invalid JGit window cache settings", e);
+        }
+        if (outcome == WindowCacheSettings.Outcome.CONFLICT && !windowCacheConflictReported && log != null) {
+            windowCacheConflictReported = true;
+            log.warn("Projects configure JGit's window cache differently; " +
+                    "keeping the settings applied first, as the cache is shared by the whole JVM.");
+        }
+    }
+
+    protected RepositoryKey resolveRepositoryKey(final File rootDir) throws VersionException {
+        final File gitDir = RepositoryKey.findGitDir(rootDir);
+        return gitDir != null ? resolveRepositoryKey(gitDir, rootDir) : null;
+    }
+
+    private RepositoryKey resolveRepositoryKey(final File gitDir, final File rootDir) throws VersionException {
+        try (final Repository repository = openRepository(gitDir)) {
+            return RepositoryKey.forRepository(repository);
+        } catch (final IOException e) {
+            throw new VersionException("Cannot read Git repository for project: " + rootDir, e);
+        }
+    }
+
+    private CalculatedVersion calculateWithCaches(final RepositoryKey key, final File rootDir) throws VersionException {
+        try (final Repository repository = openRepository(key.gitDir)) {
+            if (!isJvmCached()) {
+                return calculateWithPersistentCache(repository, isRepositoryDirty(repository));
+            }
+
+            // Survives the build session, so the work tree may have changed since
+            final SharedRepositoryCache sharedCache = SharedRepositoryCache.getInstance();
+            final String settings = getCalculatorSettings();
+            final long maxAge = TimeUnit.SECONDS.toMillis(Optional.ofNullable(jvmCacheTtl).orElse(3600));
+            final boolean dirty = isRepositoryDirty(repository);
+            final CalculatedVersion shared = sharedCache.getVersion(key, settings, maxAge);
+            if (shared != null && shared.holdsFor(dirty)) {
+                return shared.withDirty(dirty);
+            }
+
+            final CalculatedVersion calculatedVersion = calculateWithPersistentCache(repository, dirty);
+            sharedCache.putVersion(key, settings, calculatedVersion);
+            return calculatedVersion;
+        } catch (final IOException | IllegalArgumentException e) {
+            throw new VersionException("Cannot read Git repository for project: " + rootDir, e);
+        }
+    }
+
+    private CalculatedVersion calculateWithPersistentCache(final Repository repository, final boolean dirty)
+            throws IOException {
+        if (persistentCache == null || !persistentCache) {
+            return calculate(repository, dirty);
+        }
+
+        final PersistentVersionCache persistentVersionCache = PersistentVersionCache.forRepository(repository);
+        final String fingerprint = PersistentVersionCache.fingerprint(repository, getCalculatorSettings());
+
+        final CalculatedVersion cached = persistentVersionCache.load(fingerprint);
+        // The history walk can be skipped, but the work tree may have changed since the entry was written; when
+        // dirtiness chose the tag on HEAD, the entry only holds for the same state
+        if (cached != null && cached.holdsFor(dirty)) {
+            return cached.withDirty(dirty);
+        }
+
+        final CalculatedVersion calculatedVersion = calculate(repository, dirty);
+        try {
+            persistentVersionCache.store(fingerprint, calculatedVersion);
+        } catch (final IOException e) {
+            // Best effort only, e.g. the git directory may be read only
+            if (log != null) {
+                log.debug("Unable to write the version cache " + persistentVersionCache.getFile(), e);
+            }
+        }
+        return calculatedVersion;
+    }
+
+    // Shared across builds with the JVM cache, in which case closing it only gives it back to the cache
+    private Repository openRepository(final File gitDir) throws IOException {
+        return isJvmCached()
+                ? SharedRepositoryCache.getInstance().openRepository(gitDir.getCanonicalFile())
+                : new FileRepositoryBuilder().setGitDir(gitDir).build();
+    }
+
+    private boolean isJvmCached() {
+        return jvmCache != null && jvmCache;
+    }
+
+    private CalculatedVersion calculate(final Repository repository, final boolean dirty) throws IOException {
+        return HistoryVersionCalculator.calculate(
+                repository,
+                getTagIndex(repository),
+                Optional.ofNullable(maxWalkDepth).orElse(0),
+                dirty
+        );
+    }
+
+    private synchronized TagIndex getTagIndex(final Repository repository) throws IOException {
+        final File gitDir = repository.getDirectory().getCanonicalFile();
+        TagIndex tagIndex = tagIndexes.get(gitDir);
+        if (tagIndex == null) {
+            final TagFilter tagFilter = getTagFilter();
+            tagIndex = persistentTagIndex != null && persistentTagIndex
+                    ? TagIndex.forRepository(repository, tagFilter)
+                    : TagIndex.inMemory(tagFilter);
+            tagIndexes.put(gitDir, tagIndex);
+        }
+        return tagIndex;
+    }
+
+    private boolean isRepositoryDirty(final Repository repository) throws IOException {
+        // With a module scope every module is checked separately, so the repository as a whole is considered clean
+        return !isModuleScoped() && getDirtyCheck().isDirty(repository, null, getDirtyCheckPool());
+    }
+
+    private boolean isModuleDirty(final RepositoryKey key, final File rootDir) throws VersionException {
+        try (final Repository repository = openRepository(key.gitDir)) {
+            return getDirtyCheck()
+                    .isDirty(repository, DirtyCheck.pathOf(repository, rootDir), getDirtyCheckPool());
+        } catch (final IOException | IllegalArgumentException e) {
+            throw new VersionException("Cannot read Git repository for project: " + rootDir, e);
+        }
+    }
+
+    // The version with the number of commits since the base commit which changed files below the module's directory
+    // as its distance. A module none of them changed is still what was tagged, so it gets the base tag's own version.
+    private CalculatedVersion getModuleVersion(
+            final RepositoryKey key,
+            final CalculatedVersion repositoryVersion,
+            final File rootDir
+    ) throws VersionException {
+        if (repositoryVersion.commitDistance == 0 || repositoryVersion.truncated) {
+            // Nothing changed anywhere, or the history is too long to walk anyway
+            return repositoryVersion;
+        }
+        try (final Repository repository = openRepository(key.gitDir)) {
+            final String path = DirtyCheck.pathOf(repository, rootDir);
+            final int distance = getChangedPathIndex(repository, key, repositoryVersion).getCommitCount(path);
+            return distance > 0 ? repositoryVersion.withCommitDistance(distance) : repositoryVersion.atBaseCommit();
+        } catch (final IOException | IllegalArgumentException e) {
+            throw new VersionException("Cannot read Git repository for project: " + rootDir, e);
+        }
+    }
+
+    private synchronized ChangedPathIndex getChangedPathIndex(
+            final Repository repository,
+            final RepositoryKey key,
+            final CalculatedVersion repositoryVersion
+    ) throws IOException {
+        final ObjectId head = ObjectId.fromString(key.head);
+        final ObjectId base = repositoryVersion.baseCommit != null
+                ? ObjectId.fromString(repositoryVersion.baseCommit)
+                : null;
+        ChangedPathIndex index = changedPathIndexes.get(key.gitDir);
+        if (index == null || !index.head.equals(head) || !Objects.equals(index.base, base)) {
+            index = ChangedPathIndex.build(repository, head, base);
+            changedPathIndexes.put(key.gitDir, index);
+        }
+        return index;
+    }
+
+    private TagFilter getTagFilter() {
+        return TagFilter.of(tagPrefix, tagIncludes, tagExcludes);
+    }
+
+    private DirtyCheck getDirtyCheck() {
+        return DirtyCheck.of(Optional.ofNullable(dirtyCheck).orElse(DEFAULT_DIRTY_CHECK));
+    }
+
+    private synchronized ForkJoinPool getDirtyCheckPool() {
+        final int threads = Optional.ofNullable(dirtyCheckThreads).orElse(1);
+        if (threads == 1) {
+            return null;
+        }
+        if (dirtyCheckPool == null) {
+            dirtyCheckPool = new ForkJoinPool(threads > 0 ? threads : Runtime.getRuntime().availableProcessors());
+        }
+        return dirtyCheckPool;
+    }
+
+    private boolean isModuleScoped() {
+        return DIRTY_CHECK_SCOPE_MODULE.equalsIgnoreCase(Optional.ofNullable(dirtyCheckScope).orElse("").trim());
+    }
+
+    private boolean isDistanceModuleScoped() {
+        return DISTANCE_SCOPE_MODULE.equalsIgnoreCase(Optional.ofNullable(distanceScope).orElse("").trim());
+    }
+
+    // Everything configured on the calculator which may influence the calculated version
+    protected String getCalculatorSettings() {
+        return "nonQualifierBranches=" + nonQualifierBranches +
+                ",tagPrefix=" + tagPrefix +
+                ",tagIncludes=" + tagIncludes +
+                ",tagExcludes=" + tagExcludes +
+                ",maxWalkDepth=" + maxWalkDepth +
+                ",dirtyCheck=" + dirtyCheck +
+                ",dirtyCheckScope=" + dirtyCheckScope;
+    }
+
+    private CalculatedVersion calculate(final File rootDir) throws VersionException {
         try (final GitVersionCalculator calculator = GitVersionCalculator.location(rootDir)) {
-            final Version semVer = getVersionInternal(calculator);
-            setProjectProperties(mavenProject.getProperties(), semVer);
-            return semVer.toString();
+            configureGitVersionCalculator(calculator);
+            return CalculatedVersion.of(calculator);
         } catch (final Exception e) {
             throw new VersionException("Cannot close GitVersionCalculator object for project: " + rootDir, e);
         }
@@ -61,26 +490,33 @@ public class GitVersionStrategy implements VersionStrategy {
     // This method exists solely to facilitate easier unit testing
     protected Version getVersionInternal(final GitVersionCalculator calculator) {
         configureGitVersionCalculator(calculator);
+        return toSemanticVersion(CalculatedVersion.of(calculator));
+    }
 
-        final fr.brouillard.oss.jgitver.Version calculatedVersion = calculator.getVersionObject();
-
+    protected Version toSemanticVersion(final CalculatedVersion calculatedVersion) {
         final Version normalVersion = Version.forIntegers(
-                calculatedVersion.getMajor(),
-                calculatedVersion.getMinor(),
-                calculatedVersion.getPatch()
+                calculatedVersion.major,
+                calculatedVersion.minor,
+                calculatedVersion.patch
         );
 
         final Version.Builder semVerBuilder = new Version.Builder()
                 .setNormalVersion(normalVersion.toString());
 
-        final int commitDistance = calculator.meta(Metadatas.COMMIT_DISTANCE)
-                .map(Integer::valueOf)
-                .orElse(0);
+        final int commitDistance = calculatedVersion.commitDistance;
 
         final StringBuilder preReleaseVersion = new StringBuilder();
 
+        // No version tag within maxWalkDepth; the distance is only a lower bound
+        final boolean isTruncated = calculatedVersion.truncated;
+        final String truncatedMarker = Optional.ofNullable(truncatedQualifier).orElse(DEFAULT_TRUNCATED_QUALIFIER);
+
         // SNAPSHOT builds don't care if repo is dirty, so we don't have to go any further.
-        if (snapshot != null && snapshot && commitDistance > 0) {
+        if (snapshot != null && snapshot && (commitDistance > 0 || isTruncated)) {
+            // Still a SNAPSHOT to Maven, which only looks at the suffix
+            if (isTruncated) {
+                preReleaseVersion.append(truncatedMarker).append("-");
+            }
             preReleaseVersion.append("SNAPSHOT");
             semVerBuilder.setPreReleaseVersion(preReleaseVersion.toString());
             return semVerBuilder.build();
@@ -88,17 +524,21 @@ public class GitVersionStrategy implements VersionStrategy {
 
         preReleaseVersion.append(preReleaseStage).append(".").append(commitDistance);
 
-        final boolean isDirty = calculator.meta(Metadatas.DIRTY)
-                .map(Boolean::valueOf)
-                .orElse(false);
+        if (isTruncated) {
+            preReleaseVersion.append(".").append(truncatedMarker);
+        }
+
+        final boolean isDirty = calculatedVersion.dirty;
 
         if (isDirty) {
             preReleaseVersion.append(".").append(dirtyQualifier);
         }
 
-        if (isDirty || commitDistance > 0) {
+        if (isDirty || isTruncated || commitDistance > 0) {
             semVerBuilder.setPreReleaseVersion(preReleaseVersion.toString());
-            calculator.meta(Metadatas.GIT_SHA1_8).ifPresent(semVerBuilder::setBuildMetadata);
+            if (calculatedVersion.sha1 != null) {
+                semVerBuilder.setBuildMetadata(calculatedVersion.sha1);
+            }
         }
 
         return semVerBuilder.build();
@@ -127,7 +567,87 @@ public class GitVersionStrategy implements VersionStrategy {
         this.dirtyQualifier = dirtyQualifier;
     }
 
+    public void setTruncatedQualifier(final String truncatedQualifier) {
+        this.truncatedQualifier = truncatedQualifier;
+    }
+
+    public void setTagPrefix(final String tagPrefix) {
+        this.tagPrefix = tagPrefix;
+    }
+
+    public void setTagIncludes(final String tagIncludes) {
+        this.tagIncludes = tagIncludes;
+    }
+
+    public void setTagExcludes(final String tagExcludes) {
+        this.tagExcludes = tagExcludes;
+    }
+
+    public void setMaxWalkDepth(final Integer maxWalkDepth) {
+        this.maxWalkDepth = maxWalkDepth;
+    }
+
+    public void setDirtyCheck(final String dirtyCheck) {
+        this.dirtyCheck = dirtyCheck;
+    }
+
+    public void setDirtyCheckScope(final String dirtyCheckScope) {
+        this.dirtyCheckScope = dirtyCheckScope;
+    }
+
+    public void setDistanceScope(final String distanceScope) {
+        this.distanceScope = distanceScope;
+    }
+
+    public void setDirtyCheckThreads(final Integer dirtyCheckThreads) {
+        this.dirtyCheckThreads = dirtyCheckThreads;
+    }
+
+    public void setPackedGitWindowSize(final String packedGitWindowSize) {
+        this.packedGitWindowSize = packedGitWindowSize;
+    }
+
+    public void setPackedGitLimit(final String packedGitLimit) {
+        this.packedGitLimit = packedGitLimit;
+    }
+
+    public void setDeltaBaseCacheLimit(final String deltaBaseCacheLimit) {
+        this.deltaBaseCacheLimit = deltaBaseCacheLimit;
+    }
+
+    public void setPackedGitMmap(final String packedGitMmap) {
+        this.packedGitMmap = packedGitMmap;
+    }
+
+    public void setJvmCache(final Boolean jvmCache) {
+        this.jvmCache = jvmCache;
+    }
+
+    public void setJvmCacheTtl(final Integer jvmCacheTtl) {
+        this.jvmCacheTtl = jvmCacheTtl;
+    }
+
+    public void setCiEnvironment(final Boolean ciEnvironment) {
+        this.ciEnvironment = ciEnvironment;
+    }
+
+    public void setCiTagVariables(final String ciTagVariables) {
+        this.ciTagVariables = ciTagVariables;
+    }
+
     public void setSnapshot(final Boolean snapshot) {
         this.snapshot = snapshot;
     }
+
+    public void setPersistentCache(final Boolean persistentCache) {
+        this.persistentCache = persistentCache;
+    }
+
+    public void setPersistentTagIndex(final Boolean persistentTagIndex) {
+        this.persistentTagIndex = persistentTagIndex;
+    }
+
+    public void setLegacySupport(final LegacySupport legacySupport) {
+        this.legacySupport = legacySupport;
+    }
 }
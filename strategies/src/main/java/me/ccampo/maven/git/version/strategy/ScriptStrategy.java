@@ -18,53 +18,315 @@ package me.ccampo.maven.git.version.strategy;
 
 import me.ccampo.maven.git.version.core.VersionException;
 import me.ccampo.maven.git.version.core.strategy.VersionStrategy;
+import me.ccampo.maven.git.version.strategy.script.PersistentScriptCache;
+import me.ccampo.maven.git.version.strategy.script.ScriptProcess;
+import me.ccampo.maven.git.version.strategy.script.ScriptOutputCache;
+import org.apache.maven.plugin.LegacySupport;
 import org.apache.maven.project.MavenProject;
 import org.codehaus.plexus.component.annotations.Component;
 import org.codehaus.plexus.component.annotations.Configuration;
 import org.codehaus.plexus.component.annotations.Requirement;
 import org.codehaus.plexus.logging.Logger;
-import org.codehaus.plexus.util.IOUtil;
 
-import java.io.BufferedReader;
+import java.io.File;
 import java.io.IOException;
-import java.io.InputStreamReader;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 /**
  * Executes a script or executable to resolve the version.
+ * <p>
+ * The output is shared by every project of a build which runs the same script in the same working directory, so the
+ * script is launched at most once per build. Optionally, it is also kept on disk for as long as neither the script nor
+ * the files and environment variables it is declared to read change.
+ * <p>
+ * In batch mode, the script computes a version for each project: it is given one line per project on stdin, holding
+ * the project's {@code groupId:artifactId} and base directory separated by a tab, and writes one version per line, in
+ * the same order, to stdout.
  *
  * @author <a href="mailto:bdemers@apache.org">Brian Demers</a>
  */
-@Component(role = VersionStrategy.class, hint = "script")
+@Component(role = VersionStrategy.class, hint = "script", instantiationStrategy = "per-lookup")
 public class ScriptStrategy implements VersionStrategy {
 
     @Configuration("./version.sh")
     private String script;
 
+    // In seconds; 0 waits indefinitely
+    @Configuration("0")
+    private Integer timeout;
+
+    @Configuration("false")
+    private Boolean batch;
+
+    @Configuration("false")
+    private Boolean persistentCache;
+
+    @Configuration(".mvn/script-version.cache")
+    private String cacheFile;
+
+    // Comma separated files and directories, relative to the working directory
+    @Configuration("")
+    private String cacheInputs;
+
+    // Comma separated names of environment variables
+    @Configuration("")
+    private String cacheEnvironment;
+
     @Requirement
     private Logger log;
 
+    // Only used to scope the output cache to the current build session
+    @Requirement(optional = true)
+    private LegacySupport legacySupport;
+
+    private final ScriptOutputCache cache = ScriptOutputCache.getInstance();
+
+    /**
+     * The script runs in the same working directory with the same environment for every project, so it is executed
+     * only once per batch. In batch mode, it is given all projects at once instead and returns a version for each.
+     */
+    @Override
+    public Map<MavenProject, String> getVersions(final Collection<MavenProject> mavenProjects)
+            throws VersionException {
+        final Map<MavenProject, String> versions = new LinkedHashMap<>();
+        if (mavenProjects.isEmpty()) {
+            return versions;
+        }
+        if (isBatchEnabled()) {
+            return getBatchVersions(mavenProjects);
+        }
+
+        final String version = getVersion(mavenProjects.iterator().next());
+        for (final MavenProject mavenProject : mavenProjects) {
+            versions.put(mavenProject, version);
+        }
+        return versions;
+    }
+
     @Override
     public String getVersion(final MavenProject mavenProject) throws VersionException {
-        final ProcessBuilder ps = new ProcessBuilder(script);
-        ps.redirectErrorStream(true);
-        BufferedReader reader = null;
+        if (isBatchEnabled()) {
+            return getBatchVersions(Collections.singletonList(mavenProject)).get(mavenProject);
+        }
+        return getOutput(null, 1);
+    }
+
+    // One line per project on stdin, "groupId:artifactId<TAB>basedir"; one version per line, in the same order, back
+    private Map<MavenProject, String> getBatchVersions(final Collection<MavenProject> mavenProjects)
+            throws VersionException {
+        final StringBuilder input = new StringBuilder();
+        for (final MavenProject mavenProject : mavenProjects) {
+            input.append(mavenProject.getGroupId()).append(':').append(mavenProject.getArtifactId())
+                    .append('\t').append(mavenProject.getBasedir().getAbsolutePath())
+                    .append('\n');
+        }
+
+        final String[] lines = getOutput(input.toString(), mavenProjects.size()).split("\n", -1);
+        final Map<MavenProject, String> versions = new LinkedHashMap<>();
+        int i = 0;
+        for (final MavenProject mavenProject : mavenProjects) {
+            versions.put(mavenProject, lines[i++]);
+        }
+        return versions;
+    }
+
+    /**
+     * @param input the script's input, or {@code null} to give it none.
+     * @param lines the number of lines of output expected.
+     * @return the expected lines of output, joined by '\n'; or {@code null} if the script was given no input and
+     * wrote nothing.
+     */
+    private String getOutput(final String input, final int lines) throws VersionException {
+        // Like the process itself, relative paths are resolved against the directory Maven was started in
+        final File workingDirectory = new File(System.getProperty("user.dir")).getAbsoluteFile();
+        final File scriptFile = resolveScript(workingDirectory);
+        final Map<String, String> environment = getCacheEnvironment();
+
+        final String key = (scriptFile != null ? scriptFile.getPath() : script) + "\n" +
+                workingDirectory.getPath() + "\n" +
+                environment + "\n" +
+                (input != null ? input : "");
+        cache.bindSession(legacySupport != null ? legacySupport.getSession() : null);
+        return cache.get(key, () -> isPersistentCacheEnabled()
+                ? executeWithPersistentCache(workingDirectory, scriptFile, environment, input, lines)
+                : execute(workingDirectory, input, lines));
+    }
+
+    private String executeWithPersistentCache(
+            final File workingDirectory,
+            final File scriptFile,
+            final Map<String, String> environment,
+            final String input,
+            final int lines
+    ) throws VersionException {
+        final PersistentScriptCache persistentCache = new PersistentScriptCache(resolve(workingDirectory, cacheFile));
+        final String fingerprint;
         try {
-            final Process pr = ps.start();
-            reader = new BufferedReader(new InputStreamReader(pr.getInputStream()));
+            fingerprint = PersistentScriptCache.fingerprint(
+                    script,
+                    scriptFile,
+                    workingDirectory,
+                    input,
+                    environment,
+                    getCacheInputs(workingDirectory)
+            );
+        } catch (final IOException e) {
+            log.debug("Unable to fingerprint the script's inputs; executing it", e);
+            return execute(workingDirectory, input, lines);
+        }
 
-            // we are only interested in the first line
-            final String versionString = reader.readLine();
-            pr.waitFor();
+        final String cached = persistentCache.load(fingerprint);
+        if (cached != null) {
+            log.debug("Using the cached output of " + script);
+            return cached;
+        }
 
-            if (pr.exitValue() != 0) {
-                log.error("Execution Exit Code: " + pr.exitValue());
-                throw new VersionException("The script exit status: " + pr.exitValue());
+        final String output = execute(workingDirectory, input, lines);
+        if (output != null) {
+            try {
+                persistentCache.store(fingerprint, output);
+            } catch (final IOException e) {
+                // Not fatal, the next build will simply execute the script again
+                log.debug("Unable to write the script cache", e);
             }
-            return versionString;
+        }
+        return output;
+    }
+
+    private String execute(final File workingDirectory, final String input, final int lines)
+            throws VersionException {
+        final ProcessBuilder ps = new ProcessBuilder(script);
+        ps.directory(workingDirectory);
+        if (input != null) {
+            // Versions are read from stdout, so diagnostics must not end up there
+            ps.redirectError(ProcessBuilder.Redirect.INHERIT);
+        } else {
+            ps.redirectErrorStream(true);
+        }
+        final ScriptProcess.Result result;
+        try {
+            // we are only interested in the first line(s)
+            result = ScriptProcess.run(ps, input, lines, TimeUnit.SECONDS.toMillis(timeout != null ? timeout : 0));
+        } catch (final TimeoutException e) {
+            throw new VersionException(
+                    "The script did not finish within " + timeout + " seconds and was killed",
+                    e
+            );
         } catch (final IOException | InterruptedException e) {
             throw new VersionException("Failed to execute script: " + e.getMessage(), e);
-        } finally {
-            IOUtil.close(reader);
         }
+        log.info("Executed " + script + " in " + result.elapsedMillis + " ms");
+
+        if (result.exitValue != 0) {
+            log.error("Execution Exit Code: " + result.exitValue);
+            throw new VersionException("The script exit status: " + result.exitValue);
+        }
+        if (input == null) {
+            return result.firstLine;
+        }
+        if (result.lines.size() < lines) {
+            throw new VersionException(
+                    "The script returned " + result.lines.size() + " versions for " + lines + " projects"
+            );
+        }
+        return String.join("\n", result.lines);
+    }
+
+    // The file a script given as a path refers to; a bare command name is looked up on the PATH instead
+    private File resolveScript(final File workingDirectory) {
+        if (script.indexOf('/') < 0 && script.indexOf(File.separatorChar) < 0) {
+            return null;
+        }
+        final File file = resolve(workingDirectory, script);
+        try {
+            return file.getCanonicalFile();
+        } catch (final IOException e) {
+            return file;
+        }
+    }
+
+    private static File resolve(final File workingDirectory, final String path) {
+        final File file = new File(path);
+        return file.isAbsolute() ? file : new File(workingDirectory, path);
+    }
+
+    private boolean isBatchEnabled() {
+        return batch != null && batch;
+    }
+
+    private boolean isPersistentCacheEnabled() {
+        return persistentCache != null && persistentCache;
+    }
+
+    private List<File> getCacheInputs(final File workingDirectory) {
+        final List<File> inputs = new ArrayList<>();
+        for (final String input : split(cacheInputs)) {
+            inputs.add(resolve(workingDirectory, input));
+        }
+        return inputs;
+    }
+
+    private Map<String, String> getCacheEnvironment() {
+        final Map<String, String> environment = new TreeMap<>();
+        for (final String name : split(cacheEnvironment)) {
+            environment.put(name, System.getenv(name));
+        }
+        return environment;
+    }
+
+    private static List<String> split(final String value) {
+        final List<String> values = new ArrayList<>();
+        if (value != null) {
+            for (final String part : value.split(",")) {
+                if (!part.trim().isEmpty()) {
+                    values.add(part.trim());
+                }
+            }
+        }
+        return values;
+    }
+
+    public void setScript(final String script) {
+        this.script = script;
+    }
+
+    public void setTimeout(final Integer timeout) {
+        this.timeout = timeout;
+    }
+
+    public void setBatch(final Boolean batch) {
+        this.batch = batch;
+    }
+
+    public void setPersistentCache(final Boolean persistentCache) {
+        this.persistentCache = persistentCache;
+    }
+
+    public void setCacheFile(final String cacheFile) {
+        this.cacheFile = cacheFile;
+    }
+
+    public void setCacheInputs(final String cacheInputs) {
+        this.cacheInputs = cacheInputs;
+    }
+
+    public void setCacheEnvironment(final String cacheEnvironment) {
+        this.cacheEnvironment = cacheEnvironment;
+    }
+
+    public void setLegacySupport(final LegacySupport legacySupport) {
+        this.legacySupport = legacySupport;
+    }
+
+    public void setLog(final Logger log) {
+        this.log = log;
     }
 }
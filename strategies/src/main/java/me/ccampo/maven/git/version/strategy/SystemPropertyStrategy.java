@@ -26,7 +26,7 @@ import org.codehaus.plexus.util.StringUtils;
  *
  * @author <a href="mailto:bdemers@apache.org">Brian Demers</a>
  */
-@Component(role = VersionStrategy.class, hint = "sysprop")
+@Component(role = VersionStrategy.class, hint = "sysprop", instantiationStrategy = "per-lookup")
 public class SystemPropertyStrategy implements VersionStrategy {
     private static final String EXTERNAL_VERSION = "external.version";
 
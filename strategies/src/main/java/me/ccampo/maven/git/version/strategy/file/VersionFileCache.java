@@ -0,0 +1,139 @@
+package me.ccampo.maven.git.version.strategy.file;
+
+import me.ccampo.maven.git.version.strategy.util.SessionScope;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Session scoped cache of the first lines of version files and of parsed {@link VersionManifest manifests}, keyed by
+ * canonical path. Every module pointing at the same file (e.g. {@code ../VERSION}) shares a single read, and looking a
+ * module up in a manifest is a single hash lookup.
+ * <p>
+ * Entries are checked against the file's modification time and size before being used, so a file rewritten during the
+ * session (e.g. by a plugin of an earlier module) is read again.
+ */
+public class VersionFileCache {
+
+    private static final int BUFFER_SIZE = 128;
+
+    private static final VersionFileCache INSTANCE = new VersionFileCache();
+
+    private static class Entry {
+        final long lastModified;
+        final long size;
+        // The manifest format the file was parsed as, or null if only its first line was read
+        final VersionManifest.Format format;
+        final Object content;
+
+        Entry(final long lastModified, final long size, final VersionManifest.Format format, final Object content) {
+            this.lastModified = lastModified;
+            this.size = size;
+            this.format = format;
+            this.content = content;
+        }
+    }
+
+    private final Map<File, Entry> entries = new HashMap<>();
+
+    private final SessionScope session = new SessionScope();
+
+    public static VersionFileCache getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Binds the cache to a build session. Entries read during a different session are discarded.
+     *
+     * @param session the current session; may be null if it is unknown.
+     */
+    public synchronized void bindSession(final Object session) {
+        if (this.session.rebind(session)) {
+            entries.clear();
+        }
+    }
+
+    /**
+     * @param file a canonical file.
+     * @return the first line of the file, without its line terminator, or {@code null} if the file is empty.
+     * @throws IOException if the file cannot be read.
+     */
+    public synchronized String getFirstLine(final File file) throws IOException {
+        return (String) get(file, null, () -> readFirstLine(file));
+    }
+
+    /**
+     * @param file   a canonical file.
+     * @param format the file's format.
+     * @return the versions the file lists, keyed by {@code groupId:artifactId}.
+     * @throws IOException if the file cannot be read or is malformed.
+     */
+    @SuppressWarnings("unchecked")
+    public synchronized Map<String, String> getManifest(final File file, final VersionManifest.Format format)
+            throws IOException {
+        return (Map<String, String>) get(file, format, () -> VersionManifest.parse(file, format));
+    }
+
+    @FunctionalInterface
+    private interface Reader {
+        Object read() throws IOException;
+    }
+
+    private Object get(final File file, final VersionManifest.Format format, final Reader reader) throws IOException {
+        final BasicFileAttributes attributes = Files.readAttributes(file.toPath(), BasicFileAttributes.class);
+        final long lastModified = attributes.lastModifiedTime().toMillis();
+        final Entry entry = entries.get(file);
+        if (entry != null &&
+                entry.format == format &&
+                entry.lastModified == lastModified &&
+                entry.size == attributes.size()) {
+            return entry.content;
+        }
+        final Object content = reader.read();
+        entries.put(file, new Entry(lastModified, attributes.size(), format, content));
+        return content;
+    }
+
+    /**
+     * Reads a file up to its first line terminator ({@code \n}, {@code \r} or {@code \r\n}), in small chunks so that
+     * the rest of a large file is never read.
+     *
+     * @param file the file.
+     * @return the first line of the file, without its line terminator, or {@code null} if the file is empty.
+     * @throws IOException if the file cannot be read.
+     */
+    static String readFirstLine(final File file) throws IOException {
+        final ByteArrayOutputStream line = new ByteArrayOutputStream(BUFFER_SIZE);
+        boolean empty = true;
+        try (final FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            final ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+            while (channel.read(buffer) != -1) {
+                buffer.flip();
+                empty &= !buffer.hasRemaining();
+                while (buffer.hasRemaining()) {
+                    final byte b = buffer.get();
+                    if (b == '\n' || b == '\r') {
+                        return decode(line);
+                    }
+                    line.write(b);
+                }
+                buffer.clear();
+            }
+        }
+        return empty ? null : decode(line);
+    }
+
+    // Like the FileReader this replaces, in the platform's default charset
+    private static String decode(final ByteArrayOutputStream bytes) {
+        return new String(bytes.toByteArray(), Charset.defaultCharset());
+    }
+}
@@ -0,0 +1,282 @@
+package me.ccampo.maven.git.version.strategy.file;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Parses files listing the versions of many modules, keyed by {@code groupId:artifactId}, into a map.
+ * <ul>
+ * <li>{@link Format#PROPERTIES}: one {@code key=value} per line, e.g. {@code com.example:a=1.2.3}; lines starting with
+ * '#' or '!' are ignored, and a backslash escapes the character following it. Unlike in {@link java.util.Properties},
+ * ':' does not end the key, and values can't span several lines.</li>
+ * <li>{@link Format#JSON}: a single object with string values, e.g. {@code {"com.example:a": "1.2.3"}}.</li>
+ * <li>{@link Format#YAML}: a flat mapping with one {@code key: value} per line, e.g. {@code com.example:a: 1.2.3}; keys
+ * and values may be quoted, and '#' starts a comment at the start of a line or after whitespace outside of quotes.
+ * Nothing else of YAML is supported.</li>
+ * </ul>
+ */
+public class VersionManifest {
+
+    public enum Format {
+        PROPERTIES,
+        JSON,
+        YAML
+    }
+
+    private VersionManifest() {
+    }
+
+    /**
+     * @param file   the file.
+     * @param format the file's format.
+     * @return the versions, keyed by {@code groupId:artifactId}.
+     * @throws IOException if the file cannot be read or is malformed.
+     */
+    public static Map<String, String> parse(final File file, final Format format) throws IOException {
+        switch (format) {
+            case PROPERTIES:
+                return parseProperties(Files.readAllLines(file.toPath(), StandardCharsets.UTF_8));
+            case JSON:
+                return new JsonParser(new String(Files.readAllBytes(file.toPath()), StandardCharsets.UTF_8)).parse();
+            case YAML:
+                return parseYaml(Files.readAllLines(file.toPath(), StandardCharsets.UTF_8));
+            default:
+                throw new IllegalArgumentException("Unsupported format: " + format);
+        }
+    }
+
+    // Rather than java.util.Properties, which would end the key at the ':' of groupId:artifactId
+    static Map<String, String> parseProperties(final List<String> lines) throws IOException {
+        final Map<String, String> versions = new HashMap<>();
+        for (int i = 0; i < lines.size(); i++) {
+            final String line = lines.get(i).trim();
+            if (line.isEmpty() || line.startsWith("#") || line.startsWith("!")) {
+                continue;
+            }
+            final int separator = findPropertiesSeparator(line);
+            if (separator < 0) {
+                throw new IOException("Expected 'groupId:artifactId=version' on line " + (i + 1));
+            }
+            versions.put(
+                    unescape(line.substring(0, separator).trim()),
+                    unescape(line.substring(separator + 1).trim())
+            );
+        }
+        return Collections.unmodifiableMap(versions);
+    }
+
+    // The first '=' that isn't escaped
+    private static int findPropertiesSeparator(final String line) {
+        for (int i = 0; i < line.length(); i++) {
+            final char c = line.charAt(i);
+            if (c == '\\') {
+                i++;
+            } else if (c == '=') {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    // Keys written for java.util.Properties, e.g. com.example\:a, keep working
+    private static String unescape(final String value) {
+        if (value.indexOf('\\') < 0) {
+            return value;
+        }
+        final StringBuilder sb = new StringBuilder(value.length());
+        for (int i = 0; i < value.length(); i++) {
+            final char c = value.charAt(i);
+            if (c == '\\' && i + 1 < value.length()) {
+                sb.append(value.charAt(++i));
+            } else {
+                sb.append(c);
+            }
+        }
+        return sb.toString();
+    }
+
+    static Map<String, String> parseYaml(final List<String> lines) throws IOException {
+        final Map<String, String> versions = new HashMap<>();
+        for (int i = 0; i < lines.size(); i++) {
+            final String line = lines.get(i).trim();
+            if (line.isEmpty() || line.startsWith("#") || line.equals("---")) {
+                continue;
+            }
+            // The key may contain ':' itself, e.g. com.example:a: 1.2.3
+            final int separator = findYamlSeparator(line);
+            if (separator < 0) {
+                throw new IOException("Expected 'key: value' on line " + (i + 1));
+            }
+            versions.put(
+                    unquote(line.substring(0, separator).trim()),
+                    unquote(stripYamlComment(line.substring(separator + 1).trim()))
+            );
+        }
+        return Collections.unmodifiableMap(versions);
+    }
+
+    // Drops a trailing comment, e.g. the "# released" of 1.2.3  # released; a '#' within a word or quotes is kept
+    private static String stripYamlComment(final String value) {
+        int from = 0;
+        if (!value.isEmpty() && (value.charAt(0) == '"' || value.charAt(0) == '\'')) {
+            from = Math.max(0, value.indexOf(value.charAt(0), 1));
+        }
+        for (int i = value.indexOf('#', from); i >= 0; i = value.indexOf('#', i + 1)) {
+            if (i == 0 || Character.isWhitespace(value.charAt(i - 1))) {
+                return value.substring(0, i).trim();
+            }
+        }
+        return value;
+    }
+
+    // The first ':' followed by whitespace or the end of the line, outside of a quoted key
+    private static int findYamlSeparator(final String line) {
+        int from = 0;
+        if (line.charAt(0) == '"' || line.charAt(0) == '\'') {
+            from = line.indexOf(line.charAt(0), 1);
+            if (from < 0) {
+                return -1;
+            }
+        }
+        for (int i = line.indexOf(':', from); i >= 0; i = line.indexOf(':', i + 1)) {
+            if (i + 1 == line.length() || Character.isWhitespace(line.charAt(i + 1))) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static String unquote(final String value) {
+        if (value.length() >= 2 &&
+                (value.charAt(0) == '"' || value.charAt(0) == '\'') &&
+                value.charAt(value.length() - 1) == value.charAt(0)) {
+            return value.substring(1, value.length() - 1);
+        }
+        return value;
+    }
+
+    // Just enough of JSON for a single object of strings (or numbers, e.g. 1.2)
+    static class JsonParser {
+        private final String json;
+        private int pos;
+
+        JsonParser(final String json) {
+            this.json = json;
+        }
+
+        Map<String, String> parse() throws IOException {
+            final Map<String, String> versions = new HashMap<>();
+            expect('{');
+            if (peek() == '}') {
+                pos++;
+            } else {
+                do {
+                    final String key = readString();
+                    expect(':');
+                    versions.put(key, readValue());
+                } while (consume(','));
+                expect('}');
+            }
+            if (peek() != 0) {
+                throw error("Expected the end of the file");
+            }
+            return Collections.unmodifiableMap(versions);
+        }
+
+        private String readValue() throws IOException {
+            if (peek() == '"') {
+                return readString();
+            }
+            final int start = pos;
+            while (pos < json.length() && "+-.0123456789eE".indexOf(json.charAt(pos)) >= 0) {
+                pos++;
+            }
+            if (start == pos) {
+                throw error("Expected a string");
+            }
+            return json.substring(start, pos);
+        }
+
+        private String readString() throws IOException {
+            expect('"');
+            final StringBuilder sb = new StringBuilder();
+            while (pos < json.length()) {
+                final char c = json.charAt(pos++);
+                if (c == '"') {
+                    return sb.toString();
+                }
+                if (c != '\\') {
+                    sb.append(c);
+                    continue;
+                }
+                if (pos >= json.length()) {
+                    break;
+                }
+                final char escaped = json.charAt(pos++);
+                switch (escaped) {
+                    case 'b':
+                        sb.append('\b');
+                        break;
+                    case 'f':
+                        sb.append('\f');
+                        break;
+                    case 'n':
+                        sb.append('\n');
+                        break;
+                    case 'r':
+                        sb.append('\r');
+                        break;
+                    case 't':
+                        sb.append('\t');
+                        break;
+                    case 'u':
+                        if (pos + 4 > json.length()) {
+                            throw error("Invalid escape");
+                        }
+                        try {
+                            sb.append((char) Integer.parseInt(json.substring(pos, pos + 4), 16));
+                        } catch (final NumberFormatException e) {
+                            throw error("Invalid escape");
+                        }
+                        pos += 4;
+                        break;
+                    default:
+                        sb.append(escaped);
+                }
+            }
+            throw error("Unterminated string");
+        }
+
+        private void expect(final char c) throws IOException {
+            if (!consume(c)) {
+                throw error("Expected '" + c + "'");
+            }
+        }
+
+        private boolean consume(final char c) {
+            if (peek() == c) {
+                pos++;
+                return true;
+            }
+            return false;
+        }
+
+        // The next character after any whitespace, or 0 at the end
+        private char peek() {
+            while (pos < json.length() && Character.isWhitespace(json.charAt(pos))) {
+                pos++;
+            }
+            return pos < json.length() ? json.charAt(pos) : 0;
+        }
+
+        private IOException error(final String message) {
+            return new IOException(message + " at offset " + pos);
+        }
+    }
+}
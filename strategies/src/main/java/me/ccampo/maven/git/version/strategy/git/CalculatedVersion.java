@@ -0,0 +1,186 @@
+package me.ccampo.maven.git.version.strategy.git;
+
+import fr.brouillard.oss.jgitver.GitVersionCalculator;
+import fr.brouillard.oss.jgitver.Version;
+import fr.brouillard.oss.jgitver.metadata.Metadatas;
+
+import java.util.Objects;
+
+/**
+ * The raw result of a version calculation, i.e. everything {@code GitVersionStrategy} needs in order to build a
+ * semantic version. Instances are immutable so they can be shared between all modules of a repository.
+ */
+public class CalculatedVersion {
+
+    public final int major;
+    public final int minor;
+    public final int patch;
+    public final int commitDistance;
+    public final boolean dirty;
+    public final String sha1;
+    // Whether the history walk gave up before finding a version tag, in which case this is a fallback version
+    public final boolean truncated;
+    // The full id of the commit carrying the version tag this is based on; null if there is none, or it is unknown
+    public final String baseCommit;
+    // Whether patch is one more than the base tag's, as it is past an annotated tag
+    public final boolean patchIncremented;
+    // Whether the dirty flag decided between an annotated and a lightweight tag on HEAD, in which case the version
+    // only holds for that same dirty state
+    public final boolean dirtySensitive;
+
+    private CalculatedVersion(
+            final int major,
+            final int minor,
+            final int patch,
+            final int commitDistance,
+            final boolean dirty,
+            final String sha1,
+            final boolean truncated,
+            final String baseCommit,
+            final boolean patchIncremented,
+            final boolean dirtySensitive
+    ) {
+        this.major = major;
+        this.minor = minor;
+        this.patch = patch;
+        this.commitDistance = commitDistance;
+        this.dirty = dirty;
+        this.sha1 = sha1;
+        this.truncated = truncated;
+        this.baseCommit = baseCommit;
+        this.patchIncremented = patchIncremented;
+        this.dirtySensitive = dirtySensitive;
+    }
+
+    /**
+     * @return a version whose base tag, if any, is unknown.
+     */
+    public static CalculatedVersion of(
+            final int major,
+            final int minor,
+            final int patch,
+            final int commitDistance,
+            final boolean dirty,
+            final String sha1
+    ) {
+        return new CalculatedVersion(major, minor, patch, commitDistance, dirty, sha1, false, null, false, false);
+    }
+
+    /**
+     * @return the version named by a tag, with nothing known about the commit, e.g. the one a CI server builds.
+     */
+    public static CalculatedVersion tagged(final int major, final int minor, final int patch) {
+        return of(major, minor, patch, 0, false, null);
+    }
+
+    /**
+     * @return the fallback version for a history walk which gave up after the given distance without finding a
+     * version tag.
+     */
+    public static CalculatedVersion truncated(final int commitDistance, final boolean dirty, final String sha1) {
+        return new CalculatedVersion(0, 0, 0, commitDistance, dirty, sha1, true, null, false, false);
+    }
+
+    public static CalculatedVersion of(final GitVersionCalculator calculator) {
+        final Version version = calculator.getVersionObject();
+
+        final int commitDistance = calculator.meta(Metadatas.COMMIT_DISTANCE)
+                .map(Integer::valueOf)
+                .orElse(0);
+
+        final boolean dirty = calculator.meta(Metadatas.DIRTY)
+                .map(Boolean::valueOf)
+                .orElse(false);
+
+        return of(
+                version.getMajor(),
+                version.getMinor(),
+                version.getPatch(),
+                commitDistance,
+                dirty,
+                calculator.meta(Metadatas.GIT_SHA1_8).orElse(null)
+        );
+    }
+
+    /**
+     * @param dirty whether the work tree is dirty now.
+     * @return whether this version, once given that dirty flag, is what a fresh calculation would yield.
+     */
+    public boolean holdsFor(final boolean dirty) {
+        return !dirtySensitive || this.dirty == dirty;
+    }
+
+    /**
+     * @param baseCommit       the full id of the commit carrying the version tag; null if there is none.
+     * @param patchIncremented whether patch is one more than the tag's.
+     * @return this version, based on the given tag commit.
+     */
+    public CalculatedVersion basedOn(final String baseCommit, final boolean patchIncremented) {
+        return new CalculatedVersion(
+                major, minor, patch, commitDistance, dirty, sha1, truncated, baseCommit, patchIncremented, dirtySensitive
+        );
+    }
+
+    /**
+     * @param dirtySensitive whether the dirty flag decided which tag on HEAD this version is based on.
+     * @see #holdsFor(boolean)
+     */
+    public CalculatedVersion withDirtySensitive(final boolean dirtySensitive) {
+        return new CalculatedVersion(
+                major, minor, patch, commitDistance, dirty, sha1, truncated, baseCommit, patchIncremented, dirtySensitive
+        );
+    }
+
+    public CalculatedVersion withDirty(final boolean dirty) {
+        return new CalculatedVersion(
+                major, minor, patch, commitDistance, dirty, sha1, truncated, baseCommit, patchIncremented, dirtySensitive
+        );
+    }
+
+    public CalculatedVersion withCommitDistance(final int commitDistance) {
+        return new CalculatedVersion(
+                major, minor, patch, commitDistance, dirty, sha1, truncated, baseCommit, patchIncremented, dirtySensitive
+        );
+    }
+
+    /**
+     * @return the version of the base tag itself, i.e. without the patch increment, at a distance of 0; for a module
+     * which hasn't changed since the base commit.
+     */
+    public CalculatedVersion atBaseCommit() {
+        return new CalculatedVersion(
+                major, minor, patchIncremented ? patch - 1 : patch, 0, dirty, sha1, truncated, baseCommit, false,
+                dirtySensitive
+        );
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+        if (this == o) return true;
+        if (!(o instanceof CalculatedVersion)) return false;
+        final CalculatedVersion that = (CalculatedVersion) o;
+        return major == that.major &&
+                minor == that.minor &&
+                patch == that.patch &&
+                commitDistance == that.commitDistance &&
+                dirty == that.dirty &&
+                Objects.equals(sha1, that.sha1) &&
+                truncated == that.truncated &&
+                Objects.equals(baseCommit, that.baseCommit) &&
+                patchIncremented == that.patchIncremented &&
+                dirtySensitive == that.dirtySensitive;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(
+                major, minor, patch, commitDistance, dirty, sha1, truncated, baseCommit, patchIncremented, dirtySensitive
+        );
+    }
+
+    @Override
+    public String toString() {
+        return major + "." + minor + "." + patch + " (distance=" + commitDistance + ", dirty=" + dirty + ", sha1=" +
+                sha1 + (truncated ? ", truncated" : "") + ")";
+    }
+}
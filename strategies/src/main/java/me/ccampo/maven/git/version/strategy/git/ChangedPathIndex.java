@@ -0,0 +1,123 @@
+package me.ccampo.maven.git.version.strategy.git;
+
+import org.eclipse.jgit.lib.ObjectId;
+import org.eclipse.jgit.lib.Repository;
+import org.eclipse.jgit.revwalk.RevCommit;
+import org.eclipse.jgit.revwalk.RevWalk;
+import org.eclipse.jgit.treewalk.EmptyTreeIterator;
+import org.eclipse.jgit.treewalk.TreeWalk;
+import org.eclipse.jgit.treewalk.filter.TreeFilter;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * For every directory of a repository, the number of commits since a version's base commit which changed anything
+ * below it. The history is walked once, so every module of a repository gets its own commit distance for the price of a
+ * single walk.
+ * <p>
+ * Only subtrees whose ids differ between a commit and its parent are entered, so the walk costs little more than the
+ * number of directories actually changed. Like {@code git log -- <path>}, a merge only counts for a directory if it
+ * differs from every one of the merge's parents there, i.e. if the merge itself changed it.
+ * <p>
+ * The count is that of {@code git rev-list --count HEAD ^<base> -- <path>}: every commit reachable from HEAD but not
+ * from the base commit, including those of merged side branches. It is not the length of the shortest path from HEAD to
+ * the base commit, which is the repository's commit distance, so even the count of the work tree's root may differ
+ * from that.
+ */
+public class ChangedPathIndex {
+
+    public final ObjectId head;
+    public final ObjectId base;
+
+    // Keyed by directory, relative to the work tree and using '/' as separator
+    private final Map<String, Integer> commits;
+
+    private ChangedPathIndex(final ObjectId head, final ObjectId base, final Map<String, Integer> commits) {
+        this.head = head;
+        this.base = base;
+        this.commits = commits;
+    }
+
+    /**
+     * Walks the commits reachable from HEAD but not from the base commit.
+     *
+     * @param repository the repository.
+     * @param head       the commit HEAD points to.
+     * @param base       the commit carrying the version tag the version is based on, or {@code null} to walk all of
+     *                   HEAD's history.
+     * @throws IOException if the history cannot be read.
+     */
+    public static ChangedPathIndex build(final Repository repository, final ObjectId head, final ObjectId base)
+            throws IOException {
+        final Map<String, Integer> commits = new HashMap<>();
+        try (final RevWalk walk = new RevWalk(repository)) {
+            walk.markStart(walk.parseCommit(head));
+            if (base != null) {
+                walk.markUninteresting(walk.parseCommit(base));
+            }
+            for (final RevCommit commit : walk) {
+                for (final String directory : changedDirectories(walk, commit)) {
+                    commits.merge(directory, 1, Integer::sum);
+                }
+            }
+        }
+        return new ChangedPathIndex(head.copy(), base != null ? base.copy() : null, commits);
+    }
+
+    /**
+     * @param path a directory relative to the work tree (using '/' as separator), or {@code null} for the work tree
+     *             itself.
+     * @return the number of commits which changed any file below it.
+     */
+    public int getCommitCount(final String path) {
+        return commits.getOrDefault(path != null ? path : "", 0);
+    }
+
+    // The directories the commit changed compared to all of its parents, including the root ("") if any
+    private static Set<String> changedDirectories(final RevWalk walk, final RevCommit commit) throws IOException {
+        if (commit.getParentCount() == 0) {
+            return changedDirectories(walk, commit, null);
+        }
+        Set<String> changed = null;
+        for (final RevCommit parent : commit.getParents()) {
+            final Set<String> changedFromParent = changedDirectories(walk, commit, parent);
+            if (changed == null) {
+                changed = changedFromParent;
+            } else {
+                changed.retainAll(changedFromParent);
+            }
+            if (changed.isEmpty()) {
+                break;
+            }
+        }
+        return changed;
+    }
+
+    private static Set<String> changedDirectories(final RevWalk walk, final RevCommit commit, final RevCommit parent)
+            throws IOException {
+        final Set<String> changed = new HashSet<>();
+        try (final TreeWalk treeWalk = new TreeWalk(walk.getObjectReader())) {
+            if (parent != null) {
+                treeWalk.addTree(walk.parseCommit(parent).getTree());
+            } else {
+                treeWalk.addTree(new EmptyTreeIterator());
+            }
+            treeWalk.addTree(commit.getTree());
+            treeWalk.setFilter(TreeFilter.ANY_DIFF);
+            while (treeWalk.next()) {
+                if (changed.isEmpty()) {
+                    changed.add("");
+                }
+                if (treeWalk.isSubtree()) {
+                    changed.add(treeWalk.getPathString());
+                    treeWalk.enterSubtree();
+                }
+            }
+        }
+        return changed;
+    }
+}
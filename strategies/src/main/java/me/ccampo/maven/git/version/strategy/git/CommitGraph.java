@@ -0,0 +1,232 @@
+package me.ccampo.maven.git.version.strategy.git;
+
+import org.eclipse.jgit.lib.AnyObjectId;
+import org.eclipse.jgit.lib.Constants;
+import org.eclipse.jgit.lib.ObjectId;
+import org.eclipse.jgit.lib.Repository;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * A memory mapped, read only view of Git's {@code objects/info/commit-graph} file (format version 1, SHA-1). It gives
+ * the parents, generation number and commit time of every commit it contains without reading any commit object.
+ * <p>
+ * Commits are identified by their position in the file. A commit-graph is closed under reachability: the parents of
+ * every commit in it are in it too. It may however be older than the latest commits, which callers have to walk the
+ * usual way until they reach commits that are in the graph.
+ * <p>
+ * Split commit-graph chains ({@code objects/info/commit-graphs}) are not supported.
+ */
+public class CommitGraph {
+
+    private static final int SIGNATURE = 0x43475048; // "CGPH"
+    private static final int VERSION = 1;
+    private static final int HASH_VERSION_SHA1 = 1;
+
+    private static final int CHUNK_OID_FANOUT = 0x4f494446; // "OIDF"
+    private static final int CHUNK_OID_LOOKUP = 0x4f49444c; // "OIDL"
+    private static final int CHUNK_COMMIT_DATA = 0x43444154; // "CDAT"
+    private static final int CHUNK_EXTRA_EDGES = 0x45444745; // "EDGE"
+
+    private static final int HEADER_SIZE = 8;
+    private static final int CHUNK_LOOKUP_ENTRY_SIZE = 12;
+    private static final int COMMIT_DATA_SIZE = Constants.OBJECT_ID_LENGTH + 16;
+
+    private static final int PARENT_NONE = 0x70000000;
+    private static final int PARENT_EXTRA_EDGES = 0x80000000;
+    private static final int EDGE_LAST = 0x80000000;
+
+    /**
+     * The generation number of commits written by Git versions which did not compute them yet.
+     */
+    public static final int GENERATION_UNKNOWN = 0;
+
+    private final ByteBuffer buffer;
+    private final int commitCount;
+    private final int fanoutOffset;
+    private final int lookupOffset;
+    private final int dataOffset;
+    private final int edgesOffset;
+
+    private CommitGraph(
+            final ByteBuffer buffer,
+            final int commitCount,
+            final int fanoutOffset,
+            final int lookupOffset,
+            final int dataOffset,
+            final int edgesOffset
+    ) {
+        this.buffer = buffer;
+        this.commitCount = commitCount;
+        this.fanoutOffset = fanoutOffset;
+        this.lookupOffset = lookupOffset;
+        this.dataOffset = dataOffset;
+        this.edgesOffset = edgesOffset;
+    }
+
+    /**
+     * @return the commit-graph of the given repository, or {@code null} if it has none (or one this reader does not
+     * understand). Like git itself, shallow repositories are treated as having none: a graph written before the
+     * repository was made shallow reaches past the shallow boundary, which walking commits stops at.
+     */
+    public static CommitGraph open(final Repository repository) {
+        final File file = new File(repository.getDirectory(), "objects/info/commit-graph");
+        if (!file.isFile() || new File(repository.getDirectory(), "shallow").exists()) {
+            return null;
+        }
+        try (final FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            // The mapping stays valid after the channel is closed
+            final MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            return parse(buffer);
+        } catch (final IOException | IndexOutOfBoundsException e) {
+            // Unreadable or truncated; the caller falls back to walking commits
+            return null;
+        }
+    }
+
+    static CommitGraph parse(final ByteBuffer buffer) {
+        if (buffer.limit() < HEADER_SIZE || buffer.getInt(0) != SIGNATURE || buffer.get(4) != VERSION ||
+                buffer.get(5) != HASH_VERSION_SHA1 || buffer.get(7) != 0) {
+            return null;
+        }
+
+        final int chunkCount = buffer.get(6) & 0xff;
+        int fanoutOffset = -1;
+        int lookupOffset = -1;
+        int dataOffset = -1;
+        int edgesOffset = -1;
+        for (int i = 0; i < chunkCount; i++) {
+            final int entry = HEADER_SIZE + i * CHUNK_LOOKUP_ENTRY_SIZE;
+            final int offset = (int) buffer.getLong(entry + 4);
+            switch (buffer.getInt(entry)) {
+                case CHUNK_OID_FANOUT:
+                    fanoutOffset = offset;
+                    break;
+                case CHUNK_OID_LOOKUP:
+                    lookupOffset = offset;
+                    break;
+                case CHUNK_COMMIT_DATA:
+                    dataOffset = offset;
+                    break;
+                case CHUNK_EXTRA_EDGES:
+                    edgesOffset = offset;
+                    break;
+                default:
+                    // Optional chunks (generation data, bloom filters, ...) aren't needed
+                    break;
+            }
+        }
+        if (fanoutOffset < 0 || lookupOffset < 0 || dataOffset < 0) {
+            return null;
+        }
+
+        final int commitCount = buffer.getInt(fanoutOffset + 255 * 4);
+        if (commitCount < 0 || dataOffset + (long) commitCount * COMMIT_DATA_SIZE > buffer.limit()) {
+            return null;
+        }
+        return new CommitGraph(buffer, commitCount, fanoutOffset, lookupOffset, dataOffset, edgesOffset);
+    }
+
+    /**
+     * @return the number of commits in the graph; positions range from 0 (inclusive) to this (exclusive).
+     */
+    public int getCommitCount() {
+        return commitCount;
+    }
+
+    /**
+     * @return the position of the given commit, or -1 if it is not in the graph.
+     */
+    public int position(final AnyObjectId id) {
+        final int first = id.getFirstByte();
+        int low = first == 0 ? 0 : buffer.getInt(fanoutOffset + (first - 1) * 4);
+        int high = buffer.getInt(fanoutOffset + first * 4);
+        final byte[] raw = new byte[Constants.OBJECT_ID_LENGTH];
+        id.copyRawTo(raw, 0);
+        while (low < high) {
+            final int middle = (low + high) >>> 1;
+            final int cmp = compare(middle, raw);
+            if (cmp < 0) {
+                low = middle + 1;
+            } else if (cmp > 0) {
+                high = middle;
+            } else {
+                return middle;
+            }
+        }
+        return -1;
+    }
+
+    public ObjectId id(final int position) {
+        final byte[] raw = new byte[Constants.OBJECT_ID_LENGTH];
+        final int offset = lookupOffset + position * Constants.OBJECT_ID_LENGTH;
+        for (int i = 0; i < raw.length; i++) {
+            raw[i] = buffer.get(offset + i);
+        }
+        return ObjectId.fromRaw(raw);
+    }
+
+    /**
+     * @return the positions of the parents of the commit at the given position.
+     */
+    public int[] parents(final int position) {
+        final int offset = dataOffset + position * COMMIT_DATA_SIZE + Constants.OBJECT_ID_LENGTH;
+        final int first = buffer.getInt(offset);
+        if (first == PARENT_NONE) {
+            return new int[0];
+        }
+        final int second = buffer.getInt(offset + 4);
+        if (second == PARENT_NONE) {
+            return new int[]{first};
+        }
+        if ((second & PARENT_EXTRA_EDGES) == 0) {
+            return new int[]{first, second};
+        }
+
+        // Octopus merge; the second and further parents are in the extra edges chunk
+        int edge = edgesOffset + (second & ~PARENT_EXTRA_EDGES) * 4;
+        int count = 1;
+        while ((buffer.getInt(edge + (count - 1) * 4) & EDGE_LAST) == 0) {
+            count++;
+        }
+        final int[] parents = new int[count + 1];
+        parents[0] = first;
+        for (int i = 0; i < count; i++) {
+            parents[i + 1] = buffer.getInt(edge) & ~EDGE_LAST;
+            edge += 4;
+        }
+        return parents;
+    }
+
+    /**
+     * @return the generation number (topological level) of the commit at the given position: 1 for root commits, and
+     * otherwise one more than the highest generation of its parents. {@link #GENERATION_UNKNOWN} if it wasn't computed.
+     */
+    public int generation(final int position) {
+        return buffer.getInt(dataOffset + position * COMMIT_DATA_SIZE + Constants.OBJECT_ID_LENGTH + 8) >>> 2;
+    }
+
+    /**
+     * @return the commit time of the commit at the given position, in seconds since the epoch.
+     */
+    public long commitTime(final int position) {
+        final int offset = dataOffset + position * COMMIT_DATA_SIZE + Constants.OBJECT_ID_LENGTH + 8;
+        return ((buffer.getInt(offset) & 0x3L) << 32) | (buffer.getInt(offset + 4) & 0xffffffffL);
+    }
+
+    private int compare(final int position, final byte[] raw) {
+        final int offset = lookupOffset + position * Constants.OBJECT_ID_LENGTH;
+        for (int i = 0; i < raw.length; i++) {
+            final int cmp = (buffer.get(offset + i) & 0xff) - (raw[i] & 0xff);
+            if (cmp != 0) {
+                return cmp;
+            }
+        }
+        return 0;
+    }
+}
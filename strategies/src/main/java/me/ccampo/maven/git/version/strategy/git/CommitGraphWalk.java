@@ -0,0 +1,262 @@
+package me.ccampo.maven.git.version.strategy.git;
+
+import fr.brouillard.oss.jgitver.Version;
+import me.ccampo.maven.git.version.strategy.git.HistoryVersionCalculator.Base;
+import me.ccampo.maven.git.version.strategy.git.TagIndex.Tag;
+import org.eclipse.jgit.lib.ObjectId;
+import org.eclipse.jgit.revwalk.RevCommit;
+import org.eclipse.jgit.revwalk.RevWalk;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Finds the base commit of a version (the reachable commit carrying the highest version tag) and its distance from
+ * HEAD using a {@link CommitGraph}, i.e. without parsing any commit the graph knows about.
+ * <p>
+ * The highest version tag in the repository is tried first. Generation numbers tell which commits cannot possibly
+ * reach it, so only the commits made since that tag are visited; in the usual case, where HEAD descends from the
+ * latest release, that is all it takes. Only if that tag is not reachable is all of HEAD's history visited.
+ * <p>
+ * Commits newer than the graph are walked the usual way first, until every path has reached the graph.
+ */
+final class CommitGraphWalk {
+
+    private static final int UNVISITED = -1;
+
+    private final RevWalk walk;
+    private final CommitGraph graph;
+    private final Map<ObjectId, List<Tag>> tagsByCommit;
+
+    // Commits which are not in the graph, with their distance from HEAD
+    private final Map<ObjectId, RevCommit> outside = new HashMap<>();
+    private final Map<ObjectId, Integer> outsideDepths = new HashMap<>();
+
+    // Graph commits reached from those, with their distance from HEAD, in order of increasing distance
+    private int[] sources = new int[8];
+    private int[] sourceDepths = new int[8];
+    private int sourceCount;
+
+    CommitGraphWalk(final RevWalk walk, final CommitGraph graph, final Map<ObjectId, List<Tag>> tagsByCommit) {
+        this.walk = walk;
+        this.graph = graph;
+        this.tagsByCommit = tagsByCommit;
+    }
+
+    Base findBase(final ObjectId head) throws IOException {
+        walkOutside(head);
+
+        final List<ObjectId> highest = commitsWithHighestVersion(tagsByCommit.keySet());
+        Base base = null;
+        long baseTime = 0;
+        for (final ObjectId commit : highest) {
+            final int distance = distanceTo(commit);
+            if (distance != UNVISITED && isLater(commit, base, baseTime)) {
+                base = new Base(commit, distance);
+                baseTime = commitTime(commit);
+            }
+        }
+        return base != null ? base : findBaseInAllHistory();
+    }
+
+    // Breadth first from HEAD through the commits the graph doesn't know yet
+    private void walkOutside(final ObjectId head) throws IOException {
+        final int headPosition = graph.position(head);
+        if (headPosition >= 0) {
+            addSource(headPosition, 0);
+            return;
+        }
+
+        final Set<Integer> reached = new LinkedHashSet<>();
+        final Deque<RevCommit> queue = new ArrayDeque<>();
+        final RevCommit start = walk.parseCommit(head);
+        outside.put(start, start);
+        outsideDepths.put(start, 0);
+        queue.add(start);
+        while (!queue.isEmpty()) {
+            final RevCommit commit = queue.poll();
+            final int depth = outsideDepths.get(commit);
+            walk.parseHeaders(commit);
+            for (final RevCommit parent : commit.getParents()) {
+                if (outside.containsKey(parent)) {
+                    continue;
+                }
+                final int position = graph.position(parent);
+                if (position >= 0) {
+                    // Breadth first, so the first path to reach a graph commit is the shortest
+                    if (reached.add(position)) {
+                        addSource(position, depth + 1);
+                    }
+                } else {
+                    outside.put(parent, parent);
+                    outsideDepths.put(parent, depth + 1);
+                    queue.add(parent);
+                }
+            }
+        }
+    }
+
+    private int distanceTo(final ObjectId commit) {
+        final Integer outsideDepth = outsideDepths.get(commit);
+        if (outsideDepth != null) {
+            return outsideDepth;
+        }
+        final int target = graph.position(commit);
+        if (target < 0) {
+            // Neither newer than the graph nor in it, so not reachable from HEAD
+            return UNVISITED;
+        }
+        return visit(target)[target];
+    }
+
+    private Base findBaseInAllHistory() {
+        final int[] depths = visit(UNVISITED);
+
+        final List<ObjectId> reachable = new ArrayList<>();
+        for (final ObjectId commit : tagsByCommit.keySet()) {
+            final int position = graph.position(commit);
+            if (outside.containsKey(commit) || (position >= 0 && depths[position] != UNVISITED)) {
+                reachable.add(commit);
+            }
+        }
+
+        Base base = null;
+        long baseTime = 0;
+        for (final ObjectId commit : commitsWithHighestVersion(reachable)) {
+            if (isLater(commit, base, baseTime)) {
+                final Integer outsideDepth = outsideDepths.get(commit);
+                base = new Base(commit, outsideDepth != null ? outsideDepth : depths[graph.position(commit)]);
+                baseTime = commitTime(commit);
+            }
+        }
+        if (base != null) {
+            return base;
+        }
+
+        // Untagged history; like jgitver, count from the deepest commit
+        int commits = outside.size();
+        for (final int depth : depths) {
+            if (depth != UNVISITED) {
+                commits++;
+            }
+        }
+        return new Base(null, commits - 1);
+    }
+
+    /**
+     * Breadth first search of the graph from the sources, level by level so that every commit gets its shortest
+     * distance from HEAD even though the sources are at different distances.
+     *
+     * @param target the position to stop at, or {@link #UNVISITED} to visit everything reachable. Commits whose
+     *               generation is not above the target's are not visited, since they cannot reach it.
+     * @return the distance of every position from HEAD, or {@link #UNVISITED}.
+     */
+    private int[] visit(final int target) {
+        final int minGeneration = target != UNVISITED ? graph.generation(target) : CommitGraph.GENERATION_UNKNOWN;
+
+        final int[] depths = new int[graph.getCommitCount()];
+        Arrays.fill(depths, UNVISITED);
+
+        int[] level = new int[16];
+        int levelSize = 0;
+        int[] next = new int[16];
+        int source = 0;
+        int depth = sourceCount > 0 ? sourceDepths[0] : 0;
+        while (levelSize > 0 || source < sourceCount) {
+            if (levelSize == 0) {
+                depth = Math.max(depth, sourceDepths[source]);
+            }
+            for (; source < sourceCount && sourceDepths[source] == depth; source++) {
+                if (depths[sources[source]] == UNVISITED) {
+                    depths[sources[source]] = depth;
+                    level = append(level, levelSize++, sources[source]);
+                }
+            }
+            if (target != UNVISITED && depths[target] != UNVISITED) {
+                break;
+            }
+
+            int nextSize = 0;
+            for (int i = 0; i < levelSize; i++) {
+                for (final int parent : graph.parents(level[i])) {
+                    if (depths[parent] != UNVISITED || !canReach(parent, target, minGeneration)) {
+                        continue;
+                    }
+                    depths[parent] = depth + 1;
+                    next = append(next, nextSize++, parent);
+                }
+            }
+            if (target != UNVISITED && depths[target] != UNVISITED) {
+                break;
+            }
+
+            final int[] swap = level;
+            level = next;
+            next = swap;
+            levelSize = nextSize;
+            depth++;
+        }
+        return depths;
+    }
+
+    private boolean canReach(final int position, final int target, final int minGeneration) {
+        if (position == target || minGeneration == CommitGraph.GENERATION_UNKNOWN) {
+            return true;
+        }
+        final int generation = graph.generation(position);
+        return generation == CommitGraph.GENERATION_UNKNOWN || generation > minGeneration;
+    }
+
+    // The commits carrying a version tag with the highest version among the given commits
+    private List<ObjectId> commitsWithHighestVersion(final Iterable<ObjectId> commits) {
+        final List<ObjectId> highest = new ArrayList<>();
+        Version max = null;
+        for (final ObjectId commit : commits) {
+            for (final Tag tag : tagsByCommit.get(commit)) {
+                final int cmp = max == null ? 1 : tag.version.compareTo(max);
+                if (cmp > 0) {
+                    highest.clear();
+                    max = tag.version;
+                }
+                if (cmp >= 0 && !highest.contains(commit)) {
+                    highest.add(commit);
+                }
+            }
+        }
+        return highest;
+    }
+
+    // Ties between equal versions go to the most recent commit, like in jgitver's (commit time ordered) walk
+    private boolean isLater(final ObjectId commit, final Base base, final long baseTime) {
+        if (base == null) {
+            return true;
+        }
+        final long time = commitTime(commit);
+        return time > baseTime || (time == baseTime && commit.compareTo(base.commit) < 0);
+    }
+
+    private long commitTime(final ObjectId commit) {
+        final RevCommit outsideCommit = outside.get(commit);
+        return outsideCommit != null ? outsideCommit.getCommitTime() : graph.commitTime(graph.position(commit));
+    }
+
+    private void addSource(final int position, final int depth) {
+        sources = append(sources, sourceCount, position);
+        sourceDepths = append(sourceDepths, sourceCount, depth);
+        sourceCount++;
+    }
+
+    private static int[] append(final int[] array, final int size, final int value) {
+        final int[] result = size < array.length ? array : Arrays.copyOf(array, array.length * 2);
+        result[size] = value;
+        return result;
+    }
+}
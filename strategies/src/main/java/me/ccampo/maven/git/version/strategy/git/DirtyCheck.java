@@ -0,0 +1,211 @@
+package me.ccampo.maven.git.version.strategy.git;
+
+import org.eclipse.jgit.api.Git;
+import org.eclipse.jgit.api.StatusCommand;
+import org.eclipse.jgit.api.errors.GitAPIException;
+import org.eclipse.jgit.dircache.DirCacheEntry;
+import org.eclipse.jgit.dircache.DirCacheIterator;
+import org.eclipse.jgit.lib.Constants;
+import org.eclipse.jgit.lib.FileMode;
+import org.eclipse.jgit.lib.ObjectId;
+import org.eclipse.jgit.lib.Repository;
+import org.eclipse.jgit.revwalk.RevWalk;
+import org.eclipse.jgit.treewalk.EmptyTreeIterator;
+import org.eclipse.jgit.treewalk.FileTreeIterator;
+import org.eclipse.jgit.treewalk.TreeWalk;
+import org.eclipse.jgit.treewalk.filter.AndTreeFilter;
+import org.eclipse.jgit.treewalk.filter.PathFilter;
+import org.eclipse.jgit.treewalk.filter.TreeFilter;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Locale;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * The ways of deciding whether a work tree has uncommitted changes, from the most thorough to none at all.
+ * <p>
+ * Every mode can be scoped to a path, in which case only changes below that path count.
+ */
+public enum DirtyCheck {
+
+    /**
+     * A full {@code git status}: untracked files count as changes, and files whose timestamps changed are compared by
+     * content. This is what jgitver does.
+     */
+    FULL {
+        @Override
+        public boolean isDirty(final Repository repository, final String path) throws IOException {
+            final StatusCommand status = Git.wrap(repository).status();
+            if (path != null) {
+                status.addPath(path);
+            }
+            try {
+                return !status.call().isClean();
+            } catch (final GitAPIException e) {
+                throw new IOException("Cannot read the status of " + repository.getWorkTree(), e);
+            }
+        }
+    },
+
+    /**
+     * Like {@link #FULL}, but only tracked files are checked. Untracked directories (e.g. {@code target}) are never
+     * even listed.
+     */
+    TRACKED {
+        @Override
+        public boolean isDirty(final Repository repository, final String path) throws IOException {
+            return hasTrackedChanges(repository, path, true);
+        }
+
+        @Override
+        public boolean isDirty(final Repository repository, final String path, final ForkJoinPool pool)
+                throws IOException {
+            return pool != null ? new ParallelDirtyCheck(repository, pool).isDirty(path, true) :
+                    isDirty(repository, path);
+        }
+    },
+
+    /**
+     * Like {@link #TRACKED}, but files are compared against the index by size and timestamp only and never read. A file
+     * which was touched without being changed counts as a change.
+     */
+    STAT {
+        @Override
+        public boolean isDirty(final Repository repository, final String path) throws IOException {
+            return hasTrackedChanges(repository, path, false);
+        }
+
+        @Override
+        public boolean isDirty(final Repository repository, final String path, final ForkJoinPool pool)
+                throws IOException {
+            return pool != null ? new ParallelDirtyCheck(repository, pool).isDirty(path, false) :
+                    isDirty(repository, path);
+        }
+    },
+
+    /**
+     * No check at all; the work tree is always considered clean.
+     */
+    NONE {
+        @Override
+        public boolean isDirty(final Repository repository, final String path) {
+            return false;
+        }
+    };
+
+    private static final int HEAD_TREE = 0;
+    private static final int INDEX = 1;
+    private static final int WORK_TREE = 2;
+
+    /**
+     * @param repository a repository with a work tree.
+     * @param path       a path relative to the work tree (using '/' as separator), or {@code null} to check the whole
+     *                   work tree.
+     */
+    public abstract boolean isDirty(Repository repository, String path) throws IOException;
+
+    /**
+     * Like {@link #isDirty(Repository, String)}, but the {@link #TRACKED} and {@link #STAT} checks run on the given
+     * pool (see {@link ParallelDirtyCheck}). Other modes ignore it.
+     *
+     * @param pool the pool, or {@code null} to check sequentially.
+     */
+    public boolean isDirty(final Repository repository, final String path, final ForkJoinPool pool)
+            throws IOException {
+        return isDirty(repository, path);
+    }
+
+    /**
+     * @param name the case insensitive name of a mode, e.g. {@code "tracked"}.
+     * @throws IllegalArgumentException if there is no such mode.
+     */
+    public static DirtyCheck of(final String name) {
+        try {
+            return valueOf(name.trim().toUpperCase(Locale.ROOT));
+        } catch (final IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unknown dirty check '" + name + "'; expected one of full, tracked, " +
+                    "stat or none", e);
+        }
+    }
+
+    /**
+     * @return the path of the given directory relative to the repository's work tree, suitable for
+     * {@link #isDirty(Repository, String)}; {@code null} if the directory is the work tree itself.
+     */
+    public static String pathOf(final Repository repository, final File dir) throws IOException {
+        final String path = repository.getWorkTree().getCanonicalFile().toPath()
+                .relativize(dir.getCanonicalFile().toPath())
+                .toString()
+                .replace(File.separatorChar, '/');
+        return path.isEmpty() ? null : path;
+    }
+
+    // Compares HEAD, the index and the work tree in a single walk, stopping at the first difference
+    private static boolean hasTrackedChanges(final Repository repository, final String path, final boolean contentCheck)
+            throws IOException {
+        try (final TreeWalk walk = new TreeWalk(repository)) {
+            final ObjectId head = repository.resolve(Constants.HEAD);
+            if (head != null) {
+                try (final RevWalk revWalk = new RevWalk(repository)) {
+                    walk.addTree(revWalk.parseCommit(head).getTree());
+                }
+            } else {
+                walk.addTree(new EmptyTreeIterator());
+            }
+            walk.addTree(new DirCacheIterator(repository.readDirCache()));
+            final FileTreeIterator workTree = new FileTreeIterator(repository);
+            walk.addTree(workTree);
+            workTree.setDirCacheIterator(walk, INDEX);
+
+            walk.setRecursive(true);
+            walk.setFilter(path != null ? AndTreeFilter.create(PathFilter.create(path), Tracked.INSTANCE) :
+                    Tracked.INSTANCE);
+
+            while (walk.next()) {
+                if (walk.getRawMode(HEAD_TREE) != walk.getRawMode(INDEX) || !walk.idEqual(HEAD_TREE, INDEX)) {
+                    return true;
+                }
+
+                final DirCacheIterator index = walk.getTree(INDEX, DirCacheIterator.class);
+                final DirCacheEntry entry = index.getDirCacheEntry();
+                if (entry.getStage() != DirCacheEntry.STAGE_0) {
+                    return true;
+                }
+                if (entry.isAssumeValid() || entry.isSkipWorkTree() || FileMode.GITLINK.equals(entry.getFileMode())) {
+                    continue;
+                }
+
+                final FileTreeIterator file = walk.getTree(WORK_TREE, FileTreeIterator.class);
+                if (file == null || file.isModified(entry, contentCheck, walk.getObjectReader())) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    /**
+     * Only includes entries which are in HEAD or in the index, so untracked files and directories are skipped without
+     * being listed.
+     */
+    private static class Tracked extends TreeFilter {
+
+        static final Tracked INSTANCE = new Tracked();
+
+        @Override
+        public boolean include(final TreeWalk walker) {
+            return walker.getRawMode(HEAD_TREE) != 0 || walker.getRawMode(INDEX) != 0;
+        }
+
+        @Override
+        public boolean shouldBeRecursive() {
+            return false;
+        }
+
+        @Override
+        public TreeFilter clone() {
+            return this;
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package me.ccampo.maven.git.version.strategy.git;
+
+import me.ccampo.maven.git.version.core.VersionException;
+import me.ccampo.maven.git.version.strategy.util.SessionScope;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Session scoped cache of calculated versions, keyed by repository state. Every module living in the same work tree
+ * shares a single calculation instead of opening the repository, walking the tags and checking the work tree again.
+ * <p>
+ * Calculations are serialized, so concurrent callers asking for the same repository wait for the first one to finish
+ * rather than repeating the work.
+ */
+public class GitVersionCache {
+
+    @FunctionalInterface
+    public interface Calculation {
+        CalculatedVersion calculate() throws VersionException;
+    }
+
+    private final Map<RepositoryKey, CalculatedVersion> versions;
+
+    private final SessionScope session = new SessionScope();
+
+    public GitVersionCache(final Map<RepositoryKey, CalculatedVersion> versions) {
+        this.versions = versions;
+    }
+
+    public GitVersionCache() {
+        this(new HashMap<>());
+    }
+
+    /**
+     * Binds the cache to a build session. Entries computed for a different session are discarded, since the work tree
+     * (and therefore the dirty flag) may have changed in between.
+     *
+     * @param session the current session; may be null if it is unknown.
+     */
+    public synchronized void bindSession(final Object session) {
+        if (this.session.rebind(session)) {
+            versions.clear();
+        }
+    }
+
+    public synchronized CalculatedVersion get(final RepositoryKey key, final Calculation calculation)
+            throws VersionException {
+        // Can't use computeIfAbsent here elegantly due to checked exceptions
+        if (versions.containsKey(key)) {
+            return versions.get(key);
+        }
+        final CalculatedVersion version = calculation.calculate();
+        versions.put(key, version);
+        return version;
+    }
+}
@@ -0,0 +1,278 @@
+package me.ccampo.maven.git.version.strategy.git;
+
+import fr.brouillard.oss.jgitver.Version;
+import me.ccampo.maven.git.version.strategy.git.TagIndex.Tag;
+import org.eclipse.jgit.lib.Constants;
+import org.eclipse.jgit.lib.ObjectId;
+import org.eclipse.jgit.lib.Repository;
+import org.eclipse.jgit.revwalk.RevCommit;
+import org.eclipse.jgit.revwalk.RevFlag;
+import org.eclipse.jgit.revwalk.RevWalk;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Calculates the version of HEAD from the repository's version tags, with the same results as jgitver's
+ * {@code GitVersionCalculator} configured the way {@code GitVersionStrategy} does (the "configurable" strategy,
+ * distance enabled, patch auto-increment enabled, max-version tag lookup).
+ * <p>
+ * Unlike jgitver, the work tree status is not part of the calculation, so callers decide how (and whether) to check
+ * it. The history walk also looks tags up by commit instead of scanning every tag for every commit, and uses the
+ * repository's commit-graph when there is one (see {@link CommitGraphWalk}).
+ */
+public final class HistoryVersionCalculator {
+
+    /**
+     * The commit carrying the version tag a version is based on, and its distance from HEAD. Without any reachable
+     * version tag, there is no commit and the distance is that of the deepest commit, or the maximum depth if the walk
+     * was truncated.
+     */
+    static final class Base {
+        final ObjectId commit;
+        final int distance;
+        final boolean truncated;
+
+        Base(final ObjectId commit, final int distance, final boolean truncated) {
+            this.commit = commit;
+            this.distance = distance;
+            this.truncated = truncated;
+        }
+
+        Base(final ObjectId commit, final int distance) {
+            this(commit, distance, false);
+        }
+    }
+
+    private HistoryVersionCalculator() {
+    }
+
+    /**
+     * @param repository the repository; HEAD must point to a commit.
+     * @param dirty      whether the work tree is dirty. Like jgitver, this only decides which tag to use when HEAD
+     *                   carries both annotated and lightweight version tags.
+     */
+    public static CalculatedVersion calculate(final Repository repository, final boolean dirty) throws IOException {
+        return calculate(repository, TagIndex.inMemory(), dirty);
+    }
+
+    /**
+     * @param repository the repository; HEAD must point to a commit.
+     * @param tagIndex   the index to read the tags through; it is updated first.
+     * @param dirty      whether the work tree is dirty. Like jgitver, this only decides which tag to use when HEAD
+     *                   carries both annotated and lightweight version tags.
+     */
+    public static CalculatedVersion calculate(
+            final Repository repository,
+            final TagIndex tagIndex,
+            final boolean dirty
+    ) throws IOException {
+        return calculate(repository, tagIndex, 0, dirty);
+    }
+
+    /**
+     * @param repository the repository; HEAD must point to a commit.
+     * @param tagIndex   the index to read the tags through; it is updated first.
+     * @param maxDepth   if positive, only version tags at most this many commits away from HEAD are considered. If
+     *                   there are none but the history goes on beyond that, the result is a {@code truncated} 0.0.0
+     *                   version at a distance of {@code maxDepth}.
+     * @param dirty      whether the work tree is dirty. Like jgitver, this only decides which tag to use when HEAD
+     *                   carries both annotated and lightweight version tags.
+     */
+    public static CalculatedVersion calculate(
+            final Repository repository,
+            final TagIndex tagIndex,
+            final int maxDepth,
+            final boolean dirty
+    ) throws IOException {
+        final ObjectId head = repository.resolve(Constants.HEAD);
+        if (head == null) {
+            throw new IOException("HEAD does not point to a commit in " + repository.getDirectory());
+        }
+
+        final Map<ObjectId, List<Tag>> tagsByCommit = tagIndex.update(repository);
+
+        try (final RevWalk walk = new RevWalk(repository)) {
+            final List<Tag> headTags = tagsByCommit.getOrDefault(head, Collections.emptyList());
+            final boolean onHead;
+            final List<Tag> versionTags;
+            final int distance;
+            final ObjectId baseCommit;
+            if (!headTags.isEmpty()) {
+                onHead = true;
+                versionTags = headTags;
+                distance = 0;
+                baseCommit = head;
+            } else {
+                final Base base = findBase(repository, walk, head, tagsByCommit, maxDepth);
+                if (base.truncated) {
+                    return CalculatedVersion.truncated(base.distance, dirty, head.name().substring(0, 8));
+                }
+                onHead = false;
+                versionTags = base.commit != null ? tagsByCommit.get(base.commit) : Collections.emptyList();
+                distance = base.distance;
+                baseCommit = base.commit;
+            }
+
+            final Tag tag = findTagToUse(versionTags, onHead && !dirty);
+            final boolean patchIncremented = !onHead && tag != null && tag.annotated;
+            Version version = tag != null ? tag.version : Version.DEFAULT_VERSION;
+            if (patchIncremented) {
+                version = version.incrementPatch();
+            }
+
+            return CalculatedVersion.of(
+                    version.getMajor(),
+                    version.getMinor(),
+                    version.getPatch(),
+                    distance,
+                    dirty,
+                    head.name().substring(0, 8)
+            )
+                    .basedOn(baseCommit != null ? baseCommit.name() : null, patchIncremented)
+                    .withDirtySensitive(onHead && hasBothKinds(versionTags));
+        }
+    }
+
+    private static Base findBase(
+            final Repository repository,
+            final RevWalk walk,
+            final ObjectId head,
+            final Map<ObjectId, List<Tag>> tagsByCommit,
+            final int maxDepth
+    ) throws IOException {
+        if (maxDepth > 0) {
+            // Bounded anyway, so the commit-graph isn't worth opening
+            return findBaseWithin(walk, head, tagsByCommit, maxDepth);
+        }
+        final CommitGraph graph = CommitGraph.open(repository);
+        return graph != null
+                ? new CommitGraphWalk(walk, graph, tagsByCommit).findBase(head)
+                : findBase(walk, head, tagsByCommit);
+    }
+
+    /**
+     * Walks HEAD's history breadth first, up to the given distance, to find the commit with the highest version tag.
+     * On ties the one closest to HEAD wins.
+     */
+    private static Base findBaseWithin(
+            final RevWalk walk,
+            final ObjectId head,
+            final Map<ObjectId, List<Tag>> tagsByCommit,
+            final int maxDepth
+    ) throws IOException {
+        final RevFlag seen = walk.newFlag("seen");
+        List<RevCommit> level = Collections.singletonList(walk.parseCommit(head));
+        level.get(0).add(seen);
+
+        Tag max = null;
+        int maxDistance = 0;
+        int commits = 0;
+        for (int depth = 0; !level.isEmpty(); depth++) {
+            final List<RevCommit> next = new ArrayList<>();
+            for (final RevCommit commit : level) {
+                commits++;
+                for (final Tag tag : tagsByCommit.getOrDefault(commit, Collections.emptyList())) {
+                    if (max == null || tag.version.compareTo(max.version) > 0) {
+                        max = tag;
+                        maxDistance = depth;
+                    }
+                }
+                walk.parseHeaders(commit);
+                for (final RevCommit parent : commit.getParents()) {
+                    if (!parent.has(seen)) {
+                        parent.add(seen);
+                        next.add(parent);
+                    }
+                }
+            }
+            if (depth == maxDepth && !next.isEmpty()) {
+                // There is more history, but we won't look at it
+                return max != null ? new Base(max.commitId, maxDistance) : new Base(null, maxDepth, true);
+            }
+            level = next;
+        }
+        return max != null ? new Base(max.commitId, maxDistance) : new Base(null, commits - 1);
+    }
+
+    /**
+     * Walks all of HEAD's history to find the reachable commit with the highest version tag.
+     */
+    private static Base findBase(final RevWalk walk, final ObjectId head, final Map<ObjectId, List<Tag>> tagsByCommit)
+            throws IOException {
+        // Collect the reachable version tags, in the order jgitver finds them
+        walk.markStart(walk.parseCommit(head));
+        final List<Tag> reachableTags = new ArrayList<>();
+        int commits = 0;
+        for (final RevCommit commit : walk) {
+            commits++;
+            reachableTags.addAll(tagsByCommit.getOrDefault(commit, Collections.emptyList()));
+        }
+
+        if (reachableTags.isEmpty()) {
+            // Untagged history; jgitver counts from the deepest commit
+            return new Base(null, commits - 1);
+        }
+        final ObjectId base = max(reachableTags).commitId;
+        return new Base(base, distance(walk, head, base));
+    }
+
+    // Annotated tags win over lightweight ones on a clean HEAD, and lose everywhere else
+    private static Tag findTagToUse(final List<Tag> tags, final boolean preferAnnotated) {
+        final List<Tag> annotated = new ArrayList<>();
+        final List<Tag> lightweight = new ArrayList<>();
+        for (final Tag tag : tags) {
+            (tag.annotated ? annotated : lightweight).add(tag);
+        }
+        final List<Tag> primary = preferAnnotated ? annotated : lightweight;
+        return !primary.isEmpty() ? max(primary) : max(preferAnnotated ? lightweight : annotated);
+    }
+
+    private static boolean hasBothKinds(final List<Tag> tags) {
+        return tags.stream().anyMatch(tag -> tag.annotated) && tags.stream().anyMatch(tag -> !tag.annotated);
+    }
+
+    // The highest version; on ties the first one wins
+    private static Tag max(final List<Tag> tags) {
+        Tag max = null;
+        for (final Tag tag : tags) {
+            if (max == null || tag.version.compareTo(max.version) > 0) {
+                max = tag;
+            }
+        }
+        return max;
+    }
+
+    /**
+     * @return the length of the shortest path from {@code from} to {@code to}, following parents.
+     */
+    private static int distance(final RevWalk walk, final ObjectId from, final ObjectId to) throws IOException {
+        walk.reset();
+        final RevFlag seen = walk.newFlag("seen");
+        final Deque<RevCommit> queue = new ArrayDeque<>();
+        final RevCommit start = walk.parseCommit(from);
+        start.add(seen);
+        queue.add(start);
+        for (int depth = 0; !queue.isEmpty(); depth++) {
+            for (int i = queue.size(); i > 0; i--) {
+                final RevCommit commit = queue.poll();
+                if (commit.equals(to)) {
+                    return depth;
+                }
+                walk.parseHeaders(commit);
+                for (final RevCommit parent : commit.getParents()) {
+                    if (!parent.has(seen)) {
+                        parent.add(seen);
+                        queue.add(parent);
+                    }
+                }
+            }
+        }
+        throw new IOException("Commit " + to.name() + " is not reachable from " + from.name());
+    }
+}
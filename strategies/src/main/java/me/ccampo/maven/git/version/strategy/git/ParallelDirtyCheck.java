@@ -0,0 +1,252 @@
+package me.ccampo.maven.git.version.strategy.git;
+
+import org.eclipse.jgit.dircache.DirCache;
+import org.eclipse.jgit.dircache.DirCacheEntry;
+import org.eclipse.jgit.dircache.DirCacheIterator;
+import org.eclipse.jgit.lib.Constants;
+import org.eclipse.jgit.lib.CoreConfig;
+import org.eclipse.jgit.lib.FileMode;
+import org.eclipse.jgit.lib.ObjectId;
+import org.eclipse.jgit.lib.ObjectInserter;
+import org.eclipse.jgit.lib.Repository;
+import org.eclipse.jgit.revwalk.RevWalk;
+import org.eclipse.jgit.treewalk.EmptyTreeIterator;
+import org.eclipse.jgit.treewalk.TreeWalk;
+import org.eclipse.jgit.treewalk.WorkingTreeOptions;
+import org.eclipse.jgit.treewalk.filter.AndTreeFilter;
+import org.eclipse.jgit.treewalk.filter.PathFilter;
+import org.eclipse.jgit.treewalk.filter.TreeFilter;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Checks the tracked files of a work tree for changes on a {@link ForkJoinPool}. The index is split into ranges of
+ * neighbouring directories which are stat'ed (and, when needed, hashed) concurrently, and every task stops as soon as
+ * any of them finds a change, since all that matters is whether there is one.
+ * <p>
+ * The results are those of {@link DirtyCheck#TRACKED} and {@link DirtyCheck#STAT}. Files whose content may legitimately
+ * differ from the index because of line ending or attribute conversions are confirmed with JGit's own (sequential)
+ * comparison.
+ */
+public class ParallelDirtyCheck {
+
+    // Below this many index entries a range is checked by a single task
+    private static final int THRESHOLD = 256;
+
+    private final Repository repository;
+    private final ForkJoinPool pool;
+
+    public ParallelDirtyCheck(final Repository repository, final ForkJoinPool pool) {
+        this.repository = repository;
+        this.pool = pool;
+    }
+
+    /**
+     * @param path         a path relative to the work tree (using '/' as separator), or {@code null} to check the
+     *                     whole work tree.
+     * @param contentCheck whether files whose size is unchanged but whose timestamp differs from the index are hashed
+     *                     (like {@link DirtyCheck#TRACKED}), or simply considered changed (like
+     *                     {@link DirtyCheck#STAT}).
+     */
+    public boolean isDirty(final String path, final boolean contentCheck) throws IOException {
+        final DirCache index = repository.readDirCache();
+        if (hasStagedChanges(index, path)) {
+            return true;
+        }
+
+        final DirCacheEntry[] entries = path != null ? index.getEntriesWithin(path) : entries(index);
+        final Scan scan = new Scan(
+                repository.getWorkTree(),
+                repository.getIndexFile().lastModified(),
+                contentCheck,
+                !mayConvert(index)
+        );
+        try {
+            return pool.invoke(scan.new Range(entries, 0, entries.length));
+        } catch (final UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    // HEAD against the index; subtrees whose ids match are skipped without being entered
+    private boolean hasStagedChanges(final DirCache index, final String path) throws IOException {
+        try (final TreeWalk walk = new TreeWalk(repository)) {
+            final ObjectId head = repository.resolve(Constants.HEAD);
+            if (head != null) {
+                try (final RevWalk revWalk = new RevWalk(repository)) {
+                    walk.addTree(revWalk.parseCommit(head).getTree());
+                }
+            } else {
+                walk.addTree(new EmptyTreeIterator());
+            }
+            walk.addTree(new DirCacheIterator(index));
+            walk.setRecursive(true);
+            walk.setFilter(path != null ? AndTreeFilter.create(PathFilter.create(path), TreeFilter.ANY_DIFF) :
+                    TreeFilter.ANY_DIFF);
+            return walk.next();
+        }
+    }
+
+    // Whether checked out files may differ from the blobs they came from, in which case hashing them is not enough
+    private boolean mayConvert(final DirCache index) {
+        final WorkingTreeOptions options = repository.getConfig().get(WorkingTreeOptions.KEY);
+        if (options.getAutoCRLF() != CoreConfig.AutoCRLF.FALSE) {
+            return true;
+        }
+        if (repository.getConfig().getString("core", null, "attributesfile") != null ||
+                new File(repository.getDirectory(), Constants.INFO_ATTRIBUTES).isFile()) {
+            return true;
+        }
+        for (int i = 0; i < index.getEntryCount(); i++) {
+            final String name = index.getEntry(i).getPathString();
+            if (name.equals(Constants.DOT_GIT_ATTRIBUTES) || name.endsWith("/" + Constants.DOT_GIT_ATTRIBUTES)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static DirCacheEntry[] entries(final DirCache index) {
+        final DirCacheEntry[] entries = new DirCacheEntry[index.getEntryCount()];
+        for (int i = 0; i < entries.length; i++) {
+            entries[i] = index.getEntry(i);
+        }
+        return entries;
+    }
+
+    private class Scan {
+        final File workTree;
+        final long indexModified;
+        final boolean contentCheck;
+        final boolean hashable;
+        final boolean fileMode;
+
+        // Set by whichever task finds the first change; all others give up when they see it
+        final AtomicBoolean dirty = new AtomicBoolean();
+
+        Scan(final File workTree, final long indexModified, final boolean contentCheck, final boolean hashable) {
+            this.workTree = workTree;
+            this.indexModified = indexModified;
+            this.contentCheck = contentCheck;
+            this.hashable = hashable;
+            this.fileMode = repository.getConfig().get(WorkingTreeOptions.KEY).isFileMode() &&
+                    repository.getFS().supportsExecute();
+        }
+
+        /**
+         * The index entries in [from, to).
+         */
+        class Range extends RecursiveTask<Boolean> {
+            final DirCacheEntry[] entries;
+            final int from;
+            final int to;
+
+            Range(final DirCacheEntry[] entries, final int from, final int to) {
+                this.entries = entries;
+                this.from = from;
+                this.to = to;
+            }
+
+            @Override
+            protected Boolean compute() {
+                if (to - from <= THRESHOLD) {
+                    return check();
+                }
+
+                final int split = split();
+                final Range left = new Range(entries, from, split);
+                left.fork();
+                final boolean right = new Range(entries, split, to).compute();
+                return left.join() || right;
+            }
+
+            // Splits near the middle, preferably where one directory ends and the next begins
+            private int split() {
+                final int middle = (from + to) >>> 1;
+                for (int i = middle; i < to; i++) {
+                    if (!parent(entries[i - 1]).equals(parent(entries[i]))) {
+                        return i;
+                    }
+                }
+                return middle;
+            }
+
+            private boolean check() {
+                try (final ObjectInserter.Formatter formatter = new ObjectInserter.Formatter()) {
+                    for (int i = from; i < to && !dirty.get(); i++) {
+                        if (isModified(entries[i], formatter)) {
+                            dirty.set(true);
+                        }
+                    }
+                    return dirty.get();
+                } catch (final IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+        }
+
+        private boolean isModified(final DirCacheEntry entry, final ObjectInserter formatter) throws IOException {
+            if (entry.getStage() != DirCacheEntry.STAGE_0) {
+                return true;
+            }
+            if (entry.isAssumeValid() || entry.isSkipWorkTree() || FileMode.GITLINK.equals(entry.getFileMode())) {
+                return false;
+            }
+
+            final Path file = new File(workTree, entry.getPathString()).toPath();
+            final BasicFileAttributes attributes;
+            try {
+                attributes = Files.readAttributes(file, BasicFileAttributes.class, LinkOption.NOFOLLOW_LINKS);
+            } catch (final NoSuchFileException e) {
+                return true;
+            }
+
+            if (attributes.isSymbolicLink() || FileMode.SYMLINK.equals(entry.getFileMode())) {
+                // Rare enough to leave to JGit, which knows how links are stored on this platform
+                return confirm(entry);
+            }
+            // Smudged (racily clean) entries have their length zeroed, so only their content tells
+            if (!attributes.isRegularFile() || (!entry.isSmudged() && (int) attributes.size() != entry.getLength())) {
+                return true;
+            }
+            if (fileMode && Files.isExecutable(file) != FileMode.EXECUTABLE_FILE.equals(entry.getFileMode())) {
+                return true;
+            }
+
+            final long modified = attributes.lastModifiedTime().toMillis();
+            if (modified == entry.getLastModified() && !entry.isSmudged() && modified < indexModified) {
+                return false;
+            }
+            // Either touched or racily clean (modified in the same instant the index was written)
+            if (!contentCheck && modified != entry.getLastModified()) {
+                return true;
+            }
+            if (!hashable) {
+                return confirm(entry);
+            }
+            try (final InputStream in = Files.newInputStream(file)) {
+                return !formatter.idFor(Constants.OBJ_BLOB, attributes.size(), in).equals(entry.getObjectId());
+            }
+        }
+
+        private boolean confirm(final DirCacheEntry entry) throws IOException {
+            return (contentCheck ? DirtyCheck.TRACKED : DirtyCheck.STAT).isDirty(repository, entry.getPathString());
+        }
+    }
+
+    private static String parent(final DirCacheEntry entry) {
+        final String path = entry.getPathString();
+        return path.substring(0, Math.max(path.lastIndexOf('/'), 0));
+    }
+}
@@ -0,0 +1,151 @@
+package me.ccampo.maven.git.version.strategy.git;
+
+import me.ccampo.maven.git.version.strategy.util.CacheFiles;
+import org.eclipse.jgit.lib.Constants;
+import org.eclipse.jgit.lib.ObjectId;
+import org.eclipse.jgit.lib.Ref;
+import org.eclipse.jgit.lib.Repository;
+
+import java.io.File;
+import java.io.IOException;
+import java.security.MessageDigest;
+import java.util.Map;
+import java.util.Properties;
+
+/**
+ * On-disk cache of the last calculated version of a repository, stored inside the git directory so that it is shared
+ * by every module and survives {@code mvn clean}.
+ * <p>
+ * Entries are keyed by a fingerprint of everything the history walk depends on: the HEAD commit, every tag ref and
+ * the calculator settings. Any change to those produces a different fingerprint and the entry is simply ignored (and
+ * overwritten by the next calculation).
+ * <p>
+ * The dirty flag is NOT covered by the fingerprint; editing a tracked file changes neither HEAD, the refs nor the
+ * index, so callers must re-evaluate it on every hit.
+ */
+public class PersistentVersionCache {
+
+    public static final String FILE_NAME = "maven-git-version.cache";
+
+    // Bump whenever the file layout changes so stale files are ignored
+    private static final String FORMAT = "5";
+
+    private static final String FINGERPRINT = "fingerprint";
+    private static final String MAJOR = "major";
+    private static final String MINOR = "minor";
+    private static final String PATCH = "patch";
+    private static final String COMMIT_DISTANCE = "commitDistance";
+    private static final String DIRTY = "dirty";
+    private static final String SHA1 = "sha1";
+    private static final String TRUNCATED = "truncated";
+    private static final String BASE_COMMIT = "baseCommit";
+    private static final String PATCH_INCREMENTED = "patchIncremented";
+    private static final String DIRTY_SENSITIVE = "dirtySensitive";
+
+    private final File cacheFile;
+
+    public PersistentVersionCache(final File cacheFile) {
+        this.cacheFile = cacheFile;
+    }
+
+    public File getFile() {
+        return cacheFile;
+    }
+
+    public static PersistentVersionCache forRepository(final Repository repository) {
+        return new PersistentVersionCache(new File(repository.getDirectory(), FILE_NAME));
+    }
+
+    /**
+     * Computes the fingerprint of the current repository state.
+     *
+     * @param repository the repository.
+     * @param settings any calculator settings that influence the result.
+     * @return a hex encoded digest.
+     * @throws IOException if the refs cannot be read.
+     */
+    public static String fingerprint(final Repository repository, final String settings) throws IOException {
+        final MessageDigest digest = CacheFiles.newDigest();
+        CacheFiles.update(digest, "format=" + FORMAT);
+        CacheFiles.update(digest, "settings=" + settings);
+
+        final ObjectId head = repository.resolve(Constants.HEAD);
+        CacheFiles.update(digest, "HEAD=" + (head != null ? head.name() : ""));
+
+        // The ref database merges packed-refs and loose refs for us, and returns them sorted by name
+        final Map<String, Ref> tags = repository.getRefDatabase().getRefs(Constants.R_TAGS);
+        for (final Map.Entry<String, Ref> tag : tags.entrySet()) {
+            final ObjectId id = tag.getValue().getObjectId();
+            CacheFiles.update(digest, tag.getKey() + "=" + (id != null ? id.name() : ""));
+        }
+
+        return CacheFiles.toHex(digest.digest());
+    }
+
+    /**
+     * @param fingerprint the fingerprint of the current repository state.
+     * @return the cached version, or {@code null} if there is no entry for this fingerprint.
+     */
+    public CalculatedVersion load(final String fingerprint) {
+        final Properties properties = CacheFiles.load(cacheFile);
+        if (properties == null) {
+            return null;
+        }
+
+        if (!fingerprint.equals(properties.getProperty(FINGERPRINT))) {
+            return null;
+        }
+
+        try {
+            final int commitDistance = Integer.parseInt(properties.getProperty(COMMIT_DISTANCE));
+            final boolean dirty = Boolean.parseBoolean(properties.getProperty(DIRTY));
+            final String sha1 = properties.getProperty(SHA1);
+            final CalculatedVersion version = Boolean.parseBoolean(properties.getProperty(TRUNCATED))
+                    ? CalculatedVersion.truncated(commitDistance, dirty, sha1)
+                    : CalculatedVersion.of(
+                            Integer.parseInt(properties.getProperty(MAJOR)),
+                            Integer.parseInt(properties.getProperty(MINOR)),
+                            Integer.parseInt(properties.getProperty(PATCH)),
+                            commitDistance,
+                            dirty,
+                            sha1
+                    ).basedOn(
+                            properties.getProperty(BASE_COMMIT),
+                            Boolean.parseBoolean(properties.getProperty(PATCH_INCREMENTED))
+                    );
+            return version.withDirtySensitive(Boolean.parseBoolean(properties.getProperty(DIRTY_SENSITIVE)));
+        } catch (final NumberFormatException e) {
+            // Corrupt or hand edited; treat as a miss
+            return null;
+        }
+    }
+
+    /**
+     * Stores the version for the given fingerprint, replacing any previous entry. The file is written to a temporary
+     * file first and then moved in place so concurrent builds never observe a partially written cache.
+     *
+     * @param fingerprint the fingerprint of the repository state the version was calculated for.
+     * @param version the calculated version.
+     * @throws IOException if the cache cannot be written.
+     */
+    public void store(final String fingerprint, final CalculatedVersion version) throws IOException {
+        final Properties properties = new Properties();
+        properties.setProperty(FINGERPRINT, fingerprint);
+        properties.setProperty(MAJOR, String.valueOf(version.major));
+        properties.setProperty(MINOR, String.valueOf(version.minor));
+        properties.setProperty(PATCH, String.valueOf(version.patch));
+        properties.setProperty(COMMIT_DISTANCE, String.valueOf(version.commitDistance));
+        properties.setProperty(DIRTY, String.valueOf(version.dirty));
+        if (version.sha1 != null) {
+            properties.setProperty(SHA1, version.sha1);
+        }
+        properties.setProperty(TRUNCATED, String.valueOf(version.truncated));
+        if (version.baseCommit != null) {
+            properties.setProperty(BASE_COMMIT, version.baseCommit);
+        }
+        properties.setProperty(PATCH_INCREMENTED, String.valueOf(version.patchIncremented));
+        properties.setProperty(DIRTY_SENSITIVE, String.valueOf(version.dirtySensitive));
+
+        CacheFiles.store(cacheFile, properties, "maven-git-version cache; safe to delete");
+    }
+}
@@ -0,0 +1,92 @@
+package me.ccampo.maven.git.version.strategy.git;
+
+import org.eclipse.jgit.lib.Constants;
+import org.eclipse.jgit.lib.ObjectId;
+import org.eclipse.jgit.lib.Repository;
+import org.eclipse.jgit.storage.file.FileRepositoryBuilder;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Objects;
+
+/**
+ * Identifies the state of a Git repository that a version calculation depends on: the (canonical) git directory
+ * and the commit HEAD points to. All modules in the same work tree resolve to the same key.
+ */
+public class RepositoryKey {
+
+    public final File gitDir;
+    public final String head;
+
+    RepositoryKey(final File gitDir, final String head) {
+        this.gitDir = gitDir;
+        this.head = head;
+    }
+
+    public static RepositoryKey of(final File gitDir, final String head) {
+        return new RepositoryKey(gitDir, head);
+    }
+
+    /**
+     * @param dir any directory inside a Git work tree.
+     * @return the git directory of the repository containing the given directory, or {@code null} if there is none.
+     */
+    public static File findGitDir(final File dir) {
+        return new FileRepositoryBuilder().findGitDir(dir).getGitDir();
+    }
+
+    /**
+     * Resolves the repository containing the given directory.
+     *
+     * @param dir any directory inside a Git work tree.
+     * @return the key, or {@code null} if the directory is not inside a Git repository or HEAD cannot be resolved
+     * (e.g. a repository without any commits).
+     * @throws IOException if the repository cannot be read.
+     */
+    public static RepositoryKey resolve(final File dir) throws IOException {
+        final File gitDir = findGitDir(dir);
+        return gitDir != null ? forGitDir(gitDir) : null;
+    }
+
+    /**
+     * @param gitDir the git directory of a repository.
+     * @return the key, or {@code null} if HEAD cannot be resolved (e.g. a repository without any commits).
+     * @throws IOException if the repository cannot be read.
+     */
+    public static RepositoryKey forGitDir(final File gitDir) throws IOException {
+        try (final Repository repository = new FileRepositoryBuilder().setGitDir(gitDir).build()) {
+            return forRepository(repository);
+        }
+    }
+
+    /**
+     * @param repository an open repository.
+     * @return the key, or {@code null} if HEAD cannot be resolved (e.g. a repository without any commits).
+     * @throws IOException if the repository cannot be read.
+     */
+    public static RepositoryKey forRepository(final Repository repository) throws IOException {
+        final ObjectId head = repository.resolve(Constants.HEAD);
+        if (head == null) {
+            return null;
+        }
+        return new RepositoryKey(repository.getDirectory().getCanonicalFile(), head.name());
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+        if (this == o) return true;
+        if (!(o instanceof RepositoryKey)) return false;
+        final RepositoryKey that = (RepositoryKey) o;
+        return Objects.equals(gitDir, that.gitDir) && Objects.equals(head, that.head);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(gitDir, head);
+    }
+
+    @Override
+    public String toString() {
+        return gitDir + "@" + head;
+    }
+}
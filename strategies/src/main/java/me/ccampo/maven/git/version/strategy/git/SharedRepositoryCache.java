@@ -0,0 +1,225 @@
+package me.ccampo.maven.git.version.strategy.git;
+
+import org.eclipse.jgit.lib.Constants;
+import org.eclipse.jgit.lib.Repository;
+import org.eclipse.jgit.storage.file.FileRepositoryBuilder;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.LongSupplier;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * JVM wide cache of open repositories, and of the versions calculated from them, for Maven running in a long lived JVM
+ * (a build daemon, or an IDE embedding Maven) where every build would otherwise open the repository and walk its
+ * history again.
+ * <p>
+ * Both are bounded in size, least recently used entries being evicted first, and versions also expire after a given
+ * time. A {@link WatchService} on {@code HEAD}, {@code index}, {@code packed-refs} and everything below {@code refs}
+ * drops the versions of a repository as soon as a commit, checkout, fetch or tag changes any of them. Watching is best
+ * effort: some platforms poll rather than being notified, in which case the expiry bounds how stale a version may be.
+ * <p>
+ * Versions are keyed by HEAD as well, so a stale one is never used for another commit. The work tree is not watched,
+ * so callers must re-evaluate the dirty flag of a version taken from this cache.
+ */
+public class SharedRepositoryCache {
+
+    private static final int MAX_REPOSITORIES = 16;
+    private static final int MAX_VERSIONS = 64;
+
+    // The files directly inside the git directory whose changes may affect a version
+    private static final Set<String> WATCHED_FILES =
+            new HashSet<>(Arrays.asList(Constants.HEAD, "index", Constants.PACKED_REFS));
+
+    private static final SharedRepositoryCache INSTANCE = new SharedRepositoryCache(System::currentTimeMillis);
+
+    private static class Entry {
+        final CalculatedVersion version;
+        final long created;
+
+        Entry(final CalculatedVersion version, final long created) {
+            this.version = version;
+            this.created = created;
+        }
+    }
+
+    // Keyed by canonical git directory; closed when evicted
+    private final Map<File, Repository> repositories = new LinkedHashMap<File, Repository>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(final Map.Entry<File, Repository> eldest) {
+            if (size() > MAX_REPOSITORIES) {
+                unwatch(eldest.getKey());
+                eldest.getValue().close();
+                return true;
+            }
+            return false;
+        }
+    };
+
+    // Keyed by repository state, then by calculator settings
+    private final Map<RepositoryKey, Map<String, Entry>> versions =
+            new LinkedHashMap<RepositoryKey, Map<String, Entry>>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(final Map.Entry<RepositoryKey, Map<String, Entry>> eldest) {
+                    return size() > MAX_VERSIONS;
+                }
+            };
+
+    // The git directory every watched directory belongs to
+    private final Map<WatchKey, File> watched = new HashMap<>();
+
+    private final LongSupplier clock;
+
+    private WatchService watchService;
+
+    SharedRepositoryCache(final LongSupplier clock) {
+        this.clock = clock;
+    }
+
+    public static SharedRepositoryCache getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * @param gitDir the canonical git directory of a repository.
+     * @return the repository, opened for the caller, who must close it as usual. The cache keeps it open anyway.
+     * @throws IOException if the repository cannot be opened.
+     */
+    public synchronized Repository openRepository(final File gitDir) throws IOException {
+        Repository repository = repositories.get(gitDir);
+        if (repository == null) {
+            repository = new FileRepositoryBuilder().setGitDir(gitDir).build();
+            repositories.put(gitDir, repository);
+            watch(gitDir);
+        }
+        repository.incrementOpen();
+        return repository;
+    }
+
+    /**
+     * @param key      the repository state.
+     * @param settings the calculator settings the version was calculated with.
+     * @param maxAge   the time in milliseconds after which a version expires.
+     * @return the version, or {@code null} if there is none or it was invalidated or has expired.
+     */
+    public synchronized CalculatedVersion getVersion(
+            final RepositoryKey key,
+            final String settings,
+            final long maxAge
+    ) {
+        processEvents();
+        final Map<String, Entry> entries = versions.get(key);
+        final Entry entry = entries != null ? entries.get(settings) : null;
+        if (entry == null || clock.getAsLong() - entry.created >= maxAge) {
+            return null;
+        }
+        return entry.version;
+    }
+
+    public synchronized void putVersion(
+            final RepositoryKey key,
+            final String settings,
+            final CalculatedVersion version
+    ) {
+        // The repository may have changed while the version was calculated
+        processEvents();
+        versions.computeIfAbsent(key, k -> new HashMap<>()).put(settings, new Entry(version, clock.getAsLong()));
+    }
+
+    private void watch(final File gitDir) {
+        try {
+            if (watchService == null) {
+                watchService = FileSystems.getDefault().newWatchService();
+            }
+            register(gitDir.toPath(), gitDir);
+            final List<Path> refDirectories;
+            try (final Stream<Path> paths = Files.walk(new File(gitDir, Constants.R_REFS).toPath())) {
+                refDirectories = paths.filter(Files::isDirectory).collect(Collectors.toList());
+            }
+            for (final Path directory : refDirectories) {
+                register(directory, gitDir);
+            }
+        } catch (final IOException | UnsupportedOperationException e) {
+            // Can't be watched, so nothing is cached for longer than it takes to expire
+        }
+    }
+
+    private void register(final Path directory, final File gitDir) throws IOException {
+        watched.put(directory.register(
+                watchService,
+                StandardWatchEventKinds.ENTRY_CREATE,
+                StandardWatchEventKinds.ENTRY_MODIFY,
+                StandardWatchEventKinds.ENTRY_DELETE
+        ), gitDir);
+    }
+
+    private void unwatch(final File gitDir) {
+        for (final Iterator<Map.Entry<WatchKey, File>> it = watched.entrySet().iterator(); it.hasNext(); ) {
+            final Map.Entry<WatchKey, File> entry = it.next();
+            if (entry.getValue().equals(gitDir)) {
+                entry.getKey().cancel();
+                it.remove();
+            }
+        }
+        invalidate(gitDir);
+    }
+
+    private void processEvents() {
+        if (watchService == null) {
+            return;
+        }
+        WatchKey key;
+        while ((key = watchService.poll()) != null) {
+            final File gitDir = watched.get(key);
+            if (gitDir == null) {
+                continue;
+            }
+            final Path directory = (Path) key.watchable();
+            final boolean isGitDir = directory.equals(gitDir.toPath());
+            for (final WatchEvent<?> event : key.pollEvents()) {
+                if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+                    invalidate(gitDir);
+                    continue;
+                }
+                final Path name = (Path) event.context();
+                if (isGitDir && !WATCHED_FILES.contains(name.toString())) {
+                    // Lock files, logs, objects, this plugin's own files, ...
+                    continue;
+                }
+                invalidate(gitDir);
+                final Path child = directory.resolve(name);
+                if (!isGitDir && event.kind() == StandardWatchEventKinds.ENTRY_CREATE && Files.isDirectory(child)) {
+                    try {
+                        // A new namespace of refs, e.g. refs/tags/svc-a
+                        register(child, gitDir);
+                    } catch (final IOException e) {
+                        // Changes in there go unnoticed until the versions expire
+                    }
+                }
+            }
+            if (!key.reset()) {
+                watched.remove(key);
+            }
+        }
+    }
+
+    private void invalidate(final File gitDir) {
+        versions.keySet().removeIf(key -> key.gitDir.equals(gitDir));
+    }
+}
@@ -0,0 +1,102 @@
+package me.ccampo.maven.git.version.strategy.git;
+
+import fr.brouillard.oss.jgitver.impl.VersionNamingConfiguration;
+import org.eclipse.jgit.lib.Constants;
+
+import java.util.regex.Pattern;
+
+/**
+ * Decides which tags are version tags, and which version they name. Only tags starting with the prefix are considered
+ * at all, so that refs outside of it are not even listed; e.g. with the prefix {@code svc-a/}, {@code svc-a/1.2.3}
+ * names version 1.2.3 while {@code svc-b/2.0.0} and {@code 3.0.0} are ignored.
+ * <p>
+ * Beyond that, the include and exclude patterns are matched against the whole tag name (without {@code refs/tags/}),
+ * and what follows the prefix must look like a version the way jgitver expects it, e.g. {@code v1.2.3} or
+ * {@code 1.2.3-rc1}.
+ */
+public class TagFilter {
+
+    /**
+     * Accepts every tag that looks like a version, like jgitver does.
+     */
+    public static final TagFilter ALL = new TagFilter("", null, null);
+
+    private static final Pattern VERSION_TAG_PATTERN = VersionNamingConfiguration.DEFAULT_FIND_TAG_VERSION_PATTERN;
+
+    private final String prefix;
+    private final Pattern include;
+    private final Pattern exclude;
+
+    private TagFilter(final String prefix, final Pattern include, final Pattern exclude) {
+        this.prefix = prefix;
+        this.include = include;
+        this.exclude = exclude;
+    }
+
+    /**
+     * @param prefix  the prefix every version tag starts with, e.g. {@code svc-a/}; may be null or empty.
+     * @param include a regular expression tags have to match; may be null or empty to include all tags.
+     * @param exclude a regular expression tags must not match; may be null or empty to exclude none.
+     * @throws java.util.regex.PatternSyntaxException if a pattern is not a valid regular expression.
+     */
+    public static TagFilter of(final String prefix, final String include, final String exclude) {
+        return new TagFilter(
+                prefix != null ? prefix.trim() : "",
+                include != null && !include.trim().isEmpty() ? Pattern.compile(include.trim()) : null,
+                exclude != null && !exclude.trim().isEmpty() ? Pattern.compile(exclude.trim()) : null
+        );
+    }
+
+    /**
+     * @return the prefix of the full names of all refs this filter may accept, for listing only those.
+     */
+    public String getRefPrefix() {
+        return Constants.R_TAGS + prefix;
+    }
+
+    /**
+     * @param refName a full ref name, e.g. {@code refs/tags/svc-a/1.2.3}.
+     * @return whether the ref is a version tag.
+     */
+    public boolean accepts(final String refName) {
+        if (!refName.startsWith(getRefPrefix())) {
+            return false;
+        }
+        final String name = refName.substring(Constants.R_TAGS.length());
+        return (include == null || include.matcher(name).matches()) &&
+                (exclude == null || !exclude.matcher(name).matches()) &&
+                VERSION_TAG_PATTERN.matcher(name.substring(prefix.length())).matches();
+    }
+
+    /**
+     * @param refName the full name of a ref this filter {@link #accepts(String) accepts}.
+     * @return the version the tag names, e.g. {@code 1.2.3} for {@code refs/tags/svc-a/v1.2.3}.
+     */
+    public String versionOf(final String refName) {
+        return VERSION_TAG_PATTERN.matcher(refName.substring(getRefPrefix().length())).replaceAll("$1");
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        final TagFilter that = (TagFilter) o;
+        return toString().equals(that.toString());
+    }
+
+    @Override
+    public int hashCode() {
+        return toString().hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return "prefix=" + prefix +
+                ",include=" + (include != null ? include.pattern() : "") +
+                ",exclude=" + (exclude != null ? exclude.pattern() : "");
+    }
+}
@@ -0,0 +1,200 @@
+package me.ccampo.maven.git.version.strategy.git;
+
+import fr.brouillard.oss.jgitver.Version;
+import me.ccampo.maven.git.version.strategy.util.CacheFiles;
+import org.eclipse.jgit.errors.InvalidObjectIdException;
+import org.eclipse.jgit.lib.ObjectId;
+import org.eclipse.jgit.lib.Ref;
+import org.eclipse.jgit.lib.RefDatabase;
+import org.eclipse.jgit.lib.Repository;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.TreeMap;
+
+/**
+ * The version tags of a repository, each with the commit it points to and the version it names. Updating the index
+ * only peels and parses tags that were added or moved since the last update, so repositories with many thousands of
+ * release tags don't pay for all of them on every build.
+ * <p>
+ * An index may be kept in memory only, or also persisted inside the git directory so that the next build starts from
+ * it. Since a ref pointing to the same object always peels to the same commit, the persisted entries never need to be
+ * invalidated; they are simply compared against the current refs.
+ */
+public class TagIndex {
+
+    public static final String FILE_NAME = "maven-git-version.tags";
+
+    // Bump whenever the file layout changes so stale files are ignored
+    private static final String FORMAT = "1";
+    private static final String FORMAT_KEY = "format";
+    private static final String FILTER_KEY = "filter";
+
+    // Written in place of the peeled id of lightweight tags
+    private static final String NOT_ANNOTATED = "-";
+
+    /**
+     * A version tag.
+     */
+    public static class Tag {
+        public final String name;
+        public final ObjectId objectId;
+        public final ObjectId commitId;
+        public final boolean annotated;
+        public final Version version;
+
+        Tag(
+                final String name,
+                final ObjectId objectId,
+                final ObjectId commitId,
+                final boolean annotated,
+                final Version version
+        ) {
+            this.name = name;
+            this.objectId = objectId;
+            this.commitId = commitId;
+            this.annotated = annotated;
+            this.version = version;
+        }
+    }
+
+    private final File file;
+    private final TagFilter filter;
+
+    // Keyed by full ref name
+    private final Map<String, Tag> tags = new TreeMap<>();
+
+    private TagIndex(final File file, final TagFilter filter) {
+        this.file = file;
+        this.filter = filter;
+    }
+
+    /**
+     * @return an empty index of all version tags which is never persisted.
+     */
+    public static TagIndex inMemory() {
+        return inMemory(TagFilter.ALL);
+    }
+
+    /**
+     * @return an empty index of the tags accepted by the given filter which is never persisted.
+     */
+    public static TagIndex inMemory(final TagFilter filter) {
+        return new TagIndex(null, filter);
+    }
+
+    /**
+     * @return an index of all version tags persisted inside the git directory of the given repository.
+     */
+    public static TagIndex forRepository(final Repository repository) {
+        return forRepository(repository, TagFilter.ALL);
+    }
+
+    /**
+     * @return an index of the tags accepted by the given filter persisted inside the git directory of the given
+     * repository, initialized from the previous update if there was one with the same filter.
+     */
+    public static TagIndex forRepository(final Repository repository, final TagFilter filter) {
+        final TagIndex index = new TagIndex(new File(repository.getDirectory(), FILE_NAME), filter);
+        index.load();
+        return index;
+    }
+
+    /**
+     * Brings the index up to date with the repository's tags. Only the refs below the filter's prefix are listed, and
+     * only those the filter accepts are peeled and parsed.
+     *
+     * @return the version tags grouped by the commit they point to. Within a commit, tags are in reverse name order,
+     * like jgitver lists them.
+     * @throws IOException if the refs cannot be read.
+     */
+    public synchronized Map<ObjectId, List<Tag>> update(final Repository repository) throws IOException {
+        final RefDatabase refDatabase = repository.getRefDatabase();
+        final Map<String, Tag> previous = new HashMap<>(tags);
+        tags.clear();
+
+        boolean changed = false;
+        for (final Ref ref : refDatabase.getRefsByPrefix(filter.getRefPrefix())) {
+            if (ref.getObjectId() == null || !filter.accepts(ref.getName())) {
+                continue;
+            }
+            Tag tag = previous.remove(ref.getName());
+            if (tag == null || !tag.objectId.equals(ref.getObjectId())) {
+                final Ref peeled = refDatabase.peel(ref);
+                final boolean annotated = peeled.getPeeledObjectId() != null;
+                tag = new Tag(
+                        ref.getName(),
+                        ref.getObjectId().copy(),
+                        (annotated ? peeled.getPeeledObjectId() : ref.getObjectId()).copy(),
+                        annotated,
+                        Version.parse(filter.versionOf(ref.getName()))
+                );
+                changed = true;
+            }
+            tags.put(tag.name, tag);
+        }
+        changed |= !previous.isEmpty();
+
+        if (changed && file != null) {
+            try {
+                store();
+            } catch (final IOException e) {
+                // Best effort only, e.g. the git directory may be read only
+            }
+        }
+
+        final Map<ObjectId, List<Tag>> tagsByCommit = new HashMap<>();
+        for (final Tag tag : tags.values()) {
+            tagsByCommit.computeIfAbsent(tag.commitId, id -> new ArrayList<>()).add(tag);
+        }
+        for (final List<Tag> commitTags : tagsByCommit.values()) {
+            Collections.reverse(commitTags);
+        }
+        return tagsByCommit;
+    }
+
+    private void load() {
+        final Properties properties = CacheFiles.load(file);
+        if (properties == null) {
+            return;
+        }
+        if (!FORMAT.equals(properties.getProperty(FORMAT_KEY)) ||
+                !filter.toString().equals(properties.getProperty(FILTER_KEY))) {
+            return;
+        }
+
+        try {
+            for (final String name : properties.stringPropertyNames()) {
+                if (!filter.accepts(name)) {
+                    continue;
+                }
+                final String[] ids = properties.getProperty(name).split(" ");
+                final boolean annotated = !NOT_ANNOTATED.equals(ids[1]);
+                final ObjectId objectId = ObjectId.fromString(ids[0]);
+                final ObjectId commitId = annotated ? ObjectId.fromString(ids[1]) : objectId;
+                tags.put(name, new Tag(name, objectId, commitId, annotated, Version.parse(filter.versionOf(name))));
+            }
+        } catch (final InvalidObjectIdException | ArrayIndexOutOfBoundsException e) {
+            // Corrupt or hand edited; start over
+            tags.clear();
+        }
+    }
+
+    private void store() throws IOException {
+        final Properties properties = new Properties();
+        properties.setProperty(FORMAT_KEY, FORMAT);
+        properties.setProperty(FILTER_KEY, filter.toString());
+        for (final Tag tag : tags.values()) {
+            properties.setProperty(tag.name, tag.objectId.name() + " " +
+                    (tag.annotated ? tag.commitId.name() : NOT_ANNOTATED));
+        }
+
+        CacheFiles.store(file, properties, "maven-git-version tag index; safe to delete");
+    }
+}
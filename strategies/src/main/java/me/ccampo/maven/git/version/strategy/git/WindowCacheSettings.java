@@ -0,0 +1,99 @@
+package me.ccampo.maven.git.version.strategy.git;
+
+import me.ccampo.maven.git.version.strategy.util.SessionScope;
+import org.eclipse.jgit.lib.Config;
+import org.eclipse.jgit.lib.ConfigConstants;
+import org.eclipse.jgit.storage.file.WindowCacheConfig;
+
+/**
+ * Settings of JGit's window cache, through which every repository of the JVM reads its pack files. The defaults (8 KiB
+ * windows, 10 MiB in total, no memory mapping) make walking the history of repositories with large packs take many
+ * small reads; larger and memory mapped windows help a lot there.
+ * <p>
+ * The cache is global and reconfiguring it drops everything it holds, possibly while other threads are reading packs
+ * through it. Settings are therefore applied once per build session, before the first repository is read, and only
+ * installed when they differ from the ones installed last; settings differing from those applied earlier in the same
+ * session are ignored.
+ */
+public class WindowCacheSettings {
+
+    public enum Outcome {
+        /**
+         * The settings were installed.
+         */
+        INSTALLED,
+        /**
+         * The settings were already in use.
+         */
+        UNCHANGED,
+        /**
+         * Different settings were applied earlier in the same session and are kept.
+         */
+        CONFLICT
+    }
+
+    // The core.* keys of git config, as read by WindowCacheConfig.fromConfig
+    private static final String PACKED_GIT_WINDOW_SIZE = "packedGitWindowSize";
+    private static final String PACKED_GIT_LIMIT = "packedGitLimit";
+    private static final String PACKED_GIT_MMAP = "packedGitMmap";
+
+    // Those last installed, in git config format; empty while JGit's defaults are in use
+    private static String installed = "";
+
+    // The session the installed settings were applied in
+    private static final SessionScope SESSION = new SessionScope();
+    private static boolean applied;
+
+    private WindowCacheSettings() {
+    }
+
+    /**
+     * Applies the given settings, unless other settings were already applied in the same session. Values are parsed
+     * like git config: sizes are in bytes and may use the {@code k}, {@code m} and {@code g} suffixes. {@code null} or
+     * empty values leave JGit's default in place.
+     *
+     * @param session             the current build session; may be null if it is unknown.
+     * @param packedGitWindowSize the size of a window; a power of 2.
+     * @param packedGitLimit      the total size of all windows.
+     * @param deltaBaseCacheLimit the total size of the cache of inflated delta bases.
+     * @param packedGitMmap       whether windows are memory mapped rather than read into the heap.
+     * @return what became of the settings.
+     * @throws IllegalArgumentException if a value is invalid.
+     */
+    public static synchronized Outcome apply(
+            final Object session,
+            final String packedGitWindowSize,
+            final String packedGitLimit,
+            final String deltaBaseCacheLimit,
+            final String packedGitMmap
+    ) {
+        final Config config = new Config();
+        set(config, PACKED_GIT_WINDOW_SIZE, packedGitWindowSize);
+        set(config, PACKED_GIT_LIMIT, packedGitLimit);
+        set(config, ConfigConstants.CONFIG_KEY_DELTA_BASE_CACHE_LIMIT, deltaBaseCacheLimit);
+        set(config, PACKED_GIT_MMAP, packedGitMmap);
+        final String text = config.toText();
+
+        if (applied && SESSION.isBoundTo(session)) {
+            return text.equals(installed) ? Outcome.UNCHANGED : Outcome.CONFLICT;
+        }
+        final Outcome outcome;
+        if (text.equals(installed)) {
+            outcome = Outcome.UNCHANGED;
+        } else {
+            // Throws for invalid settings, which are then not recorded as applied
+            new WindowCacheConfig().fromConfig(config).install();
+            installed = text;
+            outcome = Outcome.INSTALLED;
+        }
+        SESSION.bind(session);
+        applied = true;
+        return outcome;
+    }
+
+    private static void set(final Config config, final String name, final String value) {
+        if (value != null && !value.trim().isEmpty()) {
+            config.setString(ConfigConstants.CONFIG_CORE_SECTION, null, name, value.trim());
+        }
+    }
+}
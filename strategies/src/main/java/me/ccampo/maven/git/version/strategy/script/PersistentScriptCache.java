@@ -0,0 +1,139 @@
+package me.ccampo.maven.git.version.strategy.script;
+
+import me.ccampo.maven.git.version.strategy.util.CacheFiles;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * On-disk cache of the last output of a script, so that builds which change nothing the script depends on don't launch
+ * it at all.
+ * <p>
+ * Entries are keyed by a fingerprint of the script's content, its working directory and input, the environment
+ * variables it is declared to read and the content of the files it is declared to read. The script may well look at
+ * anything else, so this is only correct if those declarations are complete; any change to them produces a different
+ * fingerprint and the entry is simply ignored (and overwritten by the next execution).
+ */
+public class PersistentScriptCache {
+
+    // Bump whenever the file layout or the fingerprint changes so stale files are ignored
+    private static final String FORMAT = "2";
+
+    private static final String FINGERPRINT = "fingerprint";
+    private static final String OUTPUT = "output";
+
+    private final File cacheFile;
+
+    public PersistentScriptCache(final File cacheFile) {
+        this.cacheFile = cacheFile;
+    }
+
+    /**
+     * @param script           the script as configured.
+     * @param scriptFile       the file the script resolves to, or {@code null} if it is looked up on the {@code PATH}.
+     * @param workingDirectory the directory the script is executed in.
+     * @param stdin            the script's input, or {@code null} if it is given none.
+     * @param environment      the names and values of the environment variables the script reads.
+     * @param inputs           the files the script reads; directories stand for all files below them.
+     * @return a hex encoded digest.
+     * @throws IOException if the script or an input cannot be read.
+     */
+    public static String fingerprint(
+            final String script,
+            final File scriptFile,
+            final File workingDirectory,
+            final String stdin,
+            final Map<String, String> environment,
+            final Collection<File> inputs
+    ) throws IOException {
+        final MessageDigest digest = CacheFiles.newDigest();
+        CacheFiles.update(digest, "format=" + FORMAT);
+        CacheFiles.update(digest, "script=" + script);
+        CacheFiles.update(digest, "workingDirectory=" + workingDirectory.getAbsolutePath());
+        if (scriptFile != null) {
+            updateFile(digest, scriptFile.toPath());
+        }
+        if (stdin != null) {
+            CacheFiles.update(digest, "stdin");
+            digest.update(stdin.getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) '\n');
+        }
+        for (final Map.Entry<String, String> variable : new TreeMap<>(environment).entrySet()) {
+            CacheFiles.update(digest, "env." + variable.getKey() + "=" + (variable.getValue() != null ? variable.getValue() : ""));
+        }
+        for (final File input : inputs) {
+            CacheFiles.update(digest, "input=" + input.getAbsolutePath());
+            final Path path = input.toPath();
+            if (Files.isDirectory(path)) {
+                final List<Path> files;
+                try (final Stream<Path> paths = Files.walk(path)) {
+                    files = paths.filter(Files::isRegularFile).sorted().collect(Collectors.toList());
+                }
+                for (final Path file : files) {
+                    CacheFiles.update(digest, "file=" + path.relativize(file));
+                    updateFile(digest, file);
+                }
+            } else if (Files.isRegularFile(path)) {
+                updateFile(digest, path);
+            } else {
+                CacheFiles.update(digest, "missing");
+            }
+        }
+        return CacheFiles.toHex(digest.digest());
+    }
+
+    /**
+     * @param fingerprint the fingerprint of the script and its inputs.
+     * @return the cached output, or {@code null} if there is no entry for this fingerprint.
+     */
+    public String load(final String fingerprint) {
+        final Properties properties = CacheFiles.load(cacheFile);
+        if (properties == null) {
+            return null;
+        }
+
+        if (!fingerprint.equals(properties.getProperty(FINGERPRINT))) {
+            return null;
+        }
+        return properties.getProperty(OUTPUT);
+    }
+
+    /**
+     * Stores the output for the given fingerprint, replacing any previous entry. The file is written to a temporary
+     * file first and then moved in place so concurrent builds never observe a partially written cache.
+     *
+     * @param fingerprint the fingerprint of the script and its inputs.
+     * @param output      the output of the script.
+     * @throws IOException if the cache cannot be written.
+     */
+    public void store(final String fingerprint, final String output) throws IOException {
+        final Properties properties = new Properties();
+        properties.setProperty(FINGERPRINT, fingerprint);
+        properties.setProperty(OUTPUT, output);
+
+        CacheFiles.store(cacheFile, properties, "maven-git-version script cache; safe to delete");
+    }
+
+    private static void updateFile(final MessageDigest digest, final Path file) throws IOException {
+        final byte[] buffer = new byte[8192];
+        try (final InputStream in = Files.newInputStream(file)) {
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                digest.update(buffer, 0, read);
+            }
+        }
+        digest.update((byte) '\n');
+    }
+}
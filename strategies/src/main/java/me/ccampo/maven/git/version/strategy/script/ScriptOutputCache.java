@@ -0,0 +1,54 @@
+package me.ccampo.maven.git.version.strategy.script;
+
+import me.ccampo.maven.git.version.core.VersionException;
+import me.ccampo.maven.git.version.strategy.util.SessionScope;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Session scoped cache of script outputs, keyed by everything an execution depends on (the resolved script, its working
+ * directory and environment). Every module sharing a script configuration gets the output of a single execution, even
+ * when each module was given its own strategy instance.
+ * <p>
+ * Executions are serialized, so concurrent callers asking for the same script wait for the first one to finish rather
+ * than launching it again.
+ */
+public class ScriptOutputCache {
+
+    @FunctionalInterface
+    public interface Execution {
+        String execute() throws VersionException;
+    }
+
+    private static final ScriptOutputCache INSTANCE = new ScriptOutputCache();
+
+    private final Map<String, String> outputs = new HashMap<>();
+
+    private final SessionScope session = new SessionScope();
+
+    public static ScriptOutputCache getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Binds the cache to a build session. Outputs of a different session are discarded, since whatever the script
+     * looks at may have changed in between.
+     *
+     * @param session the current session; may be null if it is unknown.
+     */
+    public synchronized void bindSession(final Object session) {
+        if (this.session.rebind(session)) {
+            outputs.clear();
+        }
+    }
+
+    public synchronized String get(final String key, final Execution execution) throws VersionException {
+        if (outputs.containsKey(key)) {
+            return outputs.get(key);
+        }
+        final String output = execution.execute();
+        outputs.put(key, output);
+        return output;
+    }
+}
@@ -0,0 +1,202 @@
+package me.ccampo.maven.git.version.strategy.script;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Runs a script whose first few lines of output are all that matters, within a bounded time.
+ * <p>
+ * The output is read on a background thread, which keeps reading (and discarding) it after the lines of interest;
+ * otherwise a script writing more than the pipe can buffer would block forever. Input is written on another background
+ * thread for the same reason. A script that doesn't finish in time is killed, together with every process it started
+ * where the JVM can tell which those are (Java 9 and later).
+ * <p>
+ * Once the script has exited, its output is only read for a little longer: a process it left running in the background
+ * may hold on to the output, which then never ends.
+ */
+public class ScriptProcess {
+
+    // How long the output is read after the script exited, for whatever is still buffered in the pipe
+    private static final long OUTPUT_GRACE_MILLIS = 1000;
+
+    public static class Result {
+        /**
+         * The first line of output, or {@code null} if there was none.
+         */
+        public final String firstLine;
+        /**
+         * The lines of interest; fewer if the output had fewer lines.
+         */
+        public final List<String> lines;
+        public final int exitValue;
+        public final long elapsedMillis;
+
+        Result(final List<String> lines, final int exitValue, final long elapsedMillis) {
+            this.firstLine = lines.isEmpty() ? null : lines.get(0);
+            this.lines = lines;
+            this.exitValue = exitValue;
+            this.elapsedMillis = elapsedMillis;
+        }
+    }
+
+    private ScriptProcess() {
+    }
+
+    /**
+     * Runs a script which is given no input and whose first line of output is of interest.
+     *
+     * @see #run(ProcessBuilder, String, int, long)
+     */
+    public static Result run(final ProcessBuilder builder, final long timeoutMillis)
+            throws IOException, InterruptedException, TimeoutException {
+        return run(builder, null, 1, timeoutMillis);
+    }
+
+    /**
+     * @param builder       the process to start.
+     * @param input         the script's input, or {@code null} to give it none.
+     * @param lines         the number of lines of output of interest.
+     * @param timeoutMillis the time the script may take until it has exited, or 0 to wait indefinitely.
+     * @return the result.
+     * @throws IOException          if the process cannot be started or its output cannot be read.
+     * @throws InterruptedException if interrupted while waiting; the process is killed.
+     * @throws TimeoutException     if the process took too long; it is killed.
+     */
+    public static Result run(final ProcessBuilder builder, final String input, final int lines, final long timeoutMillis)
+            throws IOException, InterruptedException, TimeoutException {
+        final long start = System.nanoTime();
+        final Process process = builder.start();
+        final List<String> read = Collections.synchronizedList(new ArrayList<>(lines));
+        final CompletableFuture<List<String>> output = drain(process.getInputStream(), lines, read);
+        feed(process.getOutputStream(), input);
+        try {
+            if (timeoutMillis > 0) {
+                final long deadline = start + TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+                if (!process.waitFor(deadline - System.nanoTime(), TimeUnit.NANOSECONDS)) {
+                    throw new TimeoutException("The script did not finish within " + timeoutMillis + " ms");
+                }
+            } else {
+                process.waitFor();
+            }
+            final List<String> result = awaitOutput(process, output, read);
+            final long elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+            return new Result(result, process.exitValue(), elapsed);
+        } catch (final TimeoutException | InterruptedException e) {
+            destroyTree(process);
+            throw e;
+        }
+    }
+
+    // The lines of interest, or as many of them as were read within the grace period after the script exited
+    private static List<String> awaitOutput(
+            final Process process,
+            final CompletableFuture<List<String>> output,
+            final List<String> read
+    ) throws IOException, InterruptedException {
+        try {
+            return output.get(OUTPUT_GRACE_MILLIS, TimeUnit.MILLISECONDS);
+        } catch (final ExecutionException e) {
+            throw e.getCause() instanceof IOException
+                    ? (IOException) e.getCause()
+                    : new IOException(e.getCause());
+        } catch (final TimeoutException e) {
+            // Still held open by a process the script left running; whatever it writes from now on is not wanted
+            output.cancel(false);
+            try {
+                process.getInputStream().close();
+            } catch (final IOException ignored) {
+                // The drainer gives up on its own once the stream ends
+            }
+            synchronized (read) {
+                return new ArrayList<>(read);
+            }
+        }
+    }
+
+    // Completed with the lines of interest (or fewer at the end of the stream), then reads the stream to its end. The
+    // lines are added to read as they come, so they can be had before the stream ends.
+    private static CompletableFuture<List<String>> drain(
+            final InputStream in,
+            final int lines,
+            final List<String> read
+    ) {
+        final CompletableFuture<List<String>> output = new CompletableFuture<>();
+        final Thread drainer = new Thread(() -> {
+            try (final BufferedReader reader = new BufferedReader(new InputStreamReader(in))) {
+                String line;
+                while (read.size() < lines && (line = reader.readLine()) != null) {
+                    read.add(line);
+                }
+                output.complete(new ArrayList<>(read));
+                final char[] buffer = new char[8192];
+                while (reader.read(buffer) != -1) {
+                    // Discarded, so the script never blocks on a full pipe
+                }
+            } catch (final IOException e) {
+                output.completeExceptionally(e);
+            }
+        }, "script-output-drainer");
+        drainer.setDaemon(true);
+        drainer.start();
+        return output;
+    }
+
+    private static void feed(final OutputStream out, final String input) throws IOException {
+        if (input == null) {
+            out.close();
+            return;
+        }
+        final Thread feeder = new Thread(() -> {
+            try (final Writer writer = new OutputStreamWriter(out)) {
+                writer.write(input);
+            } catch (final IOException e) {
+                // The script exited without reading all of it; its exit status and output tell what went wrong
+            }
+        }, "script-input-feeder");
+        feeder.setDaemon(true);
+        feeder.start();
+    }
+
+    private static void destroyTree(final Process process) {
+        // Collected before killing the script, which would leave its children to another parent
+        final List<Object> descendants = descendantsOf(process);
+        process.destroyForcibly();
+        for (final Object descendant : descendants) {
+            try {
+                Class.forName("java.lang.ProcessHandle").getMethod("destroyForcibly").invoke(descendant);
+            } catch (final ReflectiveOperationException e) {
+                // Already gone, or not ours to kill
+            }
+        }
+    }
+
+    // ProcessHandle only exists as of Java 9, so it is looked up reflectively
+    private static List<Object> descendantsOf(final Process process) {
+        try {
+            final Class<?> processHandle = Class.forName("java.lang.ProcessHandle");
+            final Object handle = Process.class.getMethod("toHandle").invoke(process);
+            final Method descendants = processHandle.getMethod("descendants");
+            try (final Stream<?> stream = (Stream<?>) descendants.invoke(handle)) {
+                return stream.collect(Collectors.<Object>toList());
+            }
+        } catch (final ReflectiveOperationException e) {
+            // Java 8: only the script itself can be killed
+            return Collections.emptyList();
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package me.ccampo.maven.git.version.strategy.util;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Properties;
+
+/**
+ * Reading, writing and fingerprinting the properties files the strategies keep their on-disk caches in.
+ */
+public class CacheFiles {
+
+    private CacheFiles() {
+    }
+
+    /**
+     * @param file the file.
+     * @return the properties in the file, or {@code null} if it doesn't exist or cannot be read.
+     */
+    public static Properties load(final File file) {
+        if (!file.isFile()) {
+            return null;
+        }
+        final Properties properties = new Properties();
+        try (final InputStream in = new FileInputStream(file)) {
+            properties.load(in);
+        } catch (final IOException e) {
+            return null;
+        }
+        return properties;
+    }
+
+    /**
+     * Replaces the file with the properties. They are written to a temporary file first and then moved in place so
+     * concurrent builds never observe a partially written file.
+     *
+     * @param file       the file; its directory is created if needed.
+     * @param properties the properties.
+     * @param comment    the comment at the top of the file.
+     * @throws IOException if the file cannot be written.
+     */
+    public static void store(final File file, final Properties properties, final String comment) throws IOException {
+        final File directory = file.getAbsoluteFile().getParentFile();
+        Files.createDirectories(directory.toPath());
+        final File tmp = File.createTempFile(file.getName(), ".tmp", directory);
+        try {
+            try (final OutputStream out = new FileOutputStream(tmp)) {
+                properties.store(out, comment);
+            }
+            Files.move(tmp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(tmp.toPath());
+        }
+    }
+
+    public static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-1");
+        } catch (final NoSuchAlgorithmException e) {
+            // Every JVM is required to support SHA-1
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Adds a line to the digest, so that consecutive lines can't run into each other.
+     */
+    public static void update(final MessageDigest digest, final String line) {
+        digest.update(line.getBytes(StandardCharsets.UTF_8));
+        digest.update((byte) '\n');
+    }
+
+    public static String toHex(final byte[] bytes) {
+        final StringBuilder sb = new StringBuilder(bytes.length * 2);
+        for (final byte b : bytes) {
+            sb.append(Character.forDigit((b >> 4) & 0xf, 16)).append(Character.forDigit(b & 0xf, 16));
+        }
+        return sb.toString();
+    }
+}
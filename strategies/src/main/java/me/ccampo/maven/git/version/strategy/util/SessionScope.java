@@ -0,0 +1,45 @@
+package me.ccampo.maven.git.version.strategy.util;
+
+import java.lang.ref.WeakReference;
+
+/**
+ * The build session something JVM wide was last computed for. Only a weak reference to the session is held, so that in
+ * a long lived JVM (a build daemon, an IDE) a finished build's session, and the whole project graph it references,
+ * doesn't stay reachable until the next build.
+ * <p>
+ * Not thread safe; callers synchronize.
+ */
+public class SessionScope {
+
+    // Null while unbound, or bound to an unknown (null) session
+    private WeakReference<Object> session;
+
+    /**
+     * @param session the current session; may be null if it is unknown.
+     * @return whether this is bound to the session. A collected session is never the current one.
+     */
+    public boolean isBoundTo(final Object session) {
+        return session == null ? this.session == null : this.session != null && this.session.get() == session;
+    }
+
+    /**
+     * @param session the current session; may be null if it is unknown.
+     */
+    public void bind(final Object session) {
+        this.session = session != null ? new WeakReference<>(session) : null;
+    }
+
+    /**
+     * Binds to the session, unless already bound to it.
+     *
+     * @param session the current session; may be null if it is unknown.
+     * @return whether the session changed, i.e. whatever was computed for the previous one should be discarded.
+     */
+    public boolean rebind(final Object session) {
+        if (isBoundTo(session)) {
+            return false;
+        }
+        bind(session);
+        return true;
+    }
+}
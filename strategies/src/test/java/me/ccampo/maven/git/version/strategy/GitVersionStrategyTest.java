@@ -3,8 +3,19 @@ package me.ccampo.maven.git.version.strategy;
 import fr.brouillard.oss.jgitver.GitVersionCalculator;
 import fr.brouillard.oss.jgitver.Version;
 import fr.brouillard.oss.jgitver.metadata.Metadatas;
+import me.ccampo.maven.git.version.strategy.git.CalculatedVersion;
+import org.apache.maven.project.MavenProject;
+import org.eclipse.jgit.api.Git;
+import org.junit.Rule;
 import org.junit.Test;
-
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Properties;
 
@@ -14,6 +25,9 @@ import static org.mockito.Mockito.when;
 
 public class GitVersionStrategyTest {
 
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
     @Test
     public void getVersionInternal_IsDirtyAndTenCommitsAhead() {
         final GitVersionStrategy strategy = new GitVersionStrategy();
@@ -282,6 +296,110 @@ public class GitVersionStrategyTest {
         assertThat(version).isEqualTo(expectedVersion);
     }
 
+    @Test
+    public void toSemanticVersion_TruncatedAndDirty() {
+        final GitVersionStrategy strategy = new GitVersionStrategy();
+        strategy.setPreReleaseStage(GitVersionStrategy.DEFAULT_PRE_RELEASE_STAGE);
+        strategy.setDirtyQualifier(GitVersionStrategy.DEFAULT_DIRTY_QUALIFIER);
+        strategy.setTruncatedQualifier(GitVersionStrategy.DEFAULT_TRUNCATED_QUALIFIER);
+
+        final CalculatedVersion calculatedVersion = CalculatedVersion.truncated(500, true, "58de199a");
+        final String version = strategy.toSemanticVersion(calculatedVersion).toString();
+
+        assertThat(version).isEqualTo("0.0.0-"
+                + GitVersionStrategy.DEFAULT_PRE_RELEASE_STAGE + ".500."
+                + GitVersionStrategy.DEFAULT_TRUNCATED_QUALIFIER + "."
+                + GitVersionStrategy.DEFAULT_DIRTY_QUALIFIER + "+58de199a");
+    }
+
+    @Test
+    public void toSemanticVersion_TruncatedSnapshot() {
+        final GitVersionStrategy strategy = new GitVersionStrategy();
+        strategy.setPreReleaseStage(GitVersionStrategy.DEFAULT_PRE_RELEASE_STAGE);
+        strategy.setDirtyQualifier(GitVersionStrategy.DEFAULT_DIRTY_QUALIFIER);
+        strategy.setTruncatedQualifier(GitVersionStrategy.DEFAULT_TRUNCATED_QUALIFIER);
+        strategy.setSnapshot(true);
+
+        final CalculatedVersion truncated = CalculatedVersion.truncated(500, false, "58de199a");
+        assertThat(strategy.toSemanticVersion(truncated).toString())
+                .isEqualTo("0.0.0-" + GitVersionStrategy.DEFAULT_TRUNCATED_QUALIFIER + "-SNAPSHOT");
+
+        final CalculatedVersion complete = CalculatedVersion.of(1, 2, 4, 3, false, "58de199a");
+        assertThat(strategy.toSemanticVersion(complete).toString()).isEqualTo("1.2.4-SNAPSHOT");
+    }
+
+    @Test
+    public void getVersions_ModuleDistance() throws Exception {
+        try (final Git git = Git.init().setDirectory(folder.getRoot()).call()) {
+            write("a/file.txt", "1");
+            write("b/file.txt", "1");
+            git.add().addFilepattern(".").call();
+            git.commit().setMessage("release").setAuthor("test", "test@example.com").call();
+            git.tag().setName("1.2.3").setAnnotated(true).setMessage("release").call();
+            write("a/file.txt", "2");
+            git.add().addFilepattern(".").call();
+            git.commit().setMessage("change a").setAuthor("test", "test@example.com").call();
+        }
+        final MavenProject root = project("");
+        final MavenProject a = project("a");
+        final MavenProject b = project("b");
+
+        final GitVersionStrategy strategy = new GitVersionStrategy();
+        strategy.setPreReleaseStage(GitVersionStrategy.DEFAULT_PRE_RELEASE_STAGE);
+        strategy.setDirtyQualifier(GitVersionStrategy.DEFAULT_DIRTY_QUALIFIER);
+        strategy.setDistanceScope(GitVersionStrategy.DISTANCE_SCOPE_MODULE);
+        Map<MavenProject, String> versions = strategy.getVersions(Arrays.asList(root, a, b));
+        assertThat(versions.get(root)).startsWith("1.2.4-" + GitVersionStrategy.DEFAULT_PRE_RELEASE_STAGE + ".1+");
+        assertThat(versions.get(a)).startsWith("1.2.4-" + GitVersionStrategy.DEFAULT_PRE_RELEASE_STAGE + ".1+");
+        // Unchanged since the tag, so it is what was tagged
+        assertThat(versions.get(b)).isEqualTo("1.2.3");
+
+        strategy.setSnapshot(true);
+        versions = strategy.getVersions(Arrays.asList(root, a, b));
+        assertThat(versions.get(a)).isEqualTo("1.2.4-SNAPSHOT");
+        assertThat(versions.get(b)).isEqualTo("1.2.3");
+    }
+
+    @Test
+    public void getCiVersion_FromTagVariable() throws Exception {
+        final Map<String, String> environment = new HashMap<>();
+        environment.put("GITHUB_REF", "refs/heads/master");
+        environment.put("CI_COMMIT_TAG", "v1.2.3");
+        final GitVersionStrategy strategy = strategyWithEnvironment(environment);
+        strategy.setCiEnvironment(true);
+
+        assertThat(strategy.getCiVersion()).isEqualTo(CalculatedVersion.tagged(1, 2, 3));
+        assertThat(strategy.toSemanticVersion(strategy.getCiVersion()).toString()).isEqualTo("1.2.3");
+    }
+
+    @Test
+    public void getCiVersion_FullTagRefWithPrefix() throws Exception {
+        final Map<String, String> environment = new HashMap<>();
+        environment.put("GITHUB_REF", "refs/tags/svc-a/2.0.0");
+        final GitVersionStrategy strategy = strategyWithEnvironment(environment);
+        strategy.setCiEnvironment(true);
+        strategy.setTagPrefix("svc-a/");
+
+        assertThat(strategy.getCiVersion()).isEqualTo(CalculatedVersion.tagged(2, 0, 0));
+
+        strategy.setTagPrefix("svc-b/");
+        assertThat(strategy.getCiVersion()).isNull();
+    }
+
+    @Test
+    public void getCiVersion_NoVersionTag() throws Exception {
+        final Map<String, String> environment = new HashMap<>();
+        environment.put("GITHUB_REF", "refs/heads/master");
+        environment.put("CI_COMMIT_TAG", "nightly");
+        final GitVersionStrategy strategy = strategyWithEnvironment(environment);
+        strategy.setCiEnvironment(true);
+        assertThat(strategy.getCiVersion()).isNull();
+
+        environment.put("CI_COMMIT_TAG", "1.0.0");
+        strategy.setCiEnvironment(false);
+        assertThat(strategy.getCiVersion()).isNull();
+    }
+
     @Test
     public void projectPropertiesAreSet_FullVersion() {
         final Properties properties = new Properties();
@@ -333,4 +451,30 @@ public class GitVersionStrategyTest {
         assertThat(properties.get(GitVersionStrategy.DOCKER_SAFE_VERSION_PROPERTY))
                 .isEqualTo(semVer.toString().replace('+', '-'));
     }
+
+    private static GitVersionStrategy strategyWithEnvironment(final Map<String, String> environment) {
+        final GitVersionStrategy strategy = new GitVersionStrategy() {
+            @Override
+            protected Map<String, String> getEnvironment() {
+                return environment;
+            }
+        };
+        strategy.setCiTagVariables(GitVersionStrategy.DEFAULT_CI_TAG_VARIABLES);
+        return strategy;
+    }
+
+    private void write(final String path, final String content) throws Exception {
+        final File file = new File(folder.getRoot(), path);
+        assertThat(file.getParentFile().isDirectory() || file.getParentFile().mkdirs()).isTrue();
+        Files.write(file.toPath(), content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private MavenProject project(final String path) {
+        final MavenProject project = new MavenProject();
+        // Projects are equal by their coordinates
+        project.setGroupId("com.example");
+        project.setArtifactId("module-" + path);
+        project.setFile(new File(new File(folder.getRoot(), path), "pom.xml"));
+        return project;
+    }
 }
@@ -0,0 +1,151 @@
+package me.ccampo.maven.git.version.strategy;
+
+import me.ccampo.maven.git.version.core.VersionException;
+import org.apache.maven.execution.MavenSession;
+import org.apache.maven.plugin.LegacySupport;
+import org.apache.maven.project.MavenProject;
+import org.codehaus.plexus.logging.Logger;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.entry;
+import static org.junit.Assume.assumeTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class ScriptStrategyTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private final LegacySupport legacySupport = mock(LegacySupport.class);
+
+    private File runs;
+
+    @Before
+    public void setUp() {
+        assumeTrue(new File("/bin/sh").canExecute());
+        runs = new File(folder.getRoot(), "runs");
+        when(legacySupport.getSession()).thenReturn(mock(MavenSession.class));
+    }
+
+    @Test
+    public void getVersions_RunsOncePerSession() throws Exception {
+        final String script = script("echo run >> '" + runs + "'; echo 1.2.3");
+        final MavenProject a = project("a");
+        final MavenProject b = project("b");
+
+        assertThat(strategy(script).getVersions(Arrays.asList(a, b)))
+                .containsEntry(a, "1.2.3")
+                .containsEntry(b, "1.2.3");
+        // Strategies are looked up per project, but share the output
+        assertThat(strategy(script).getVersion(project("c"))).isEqualTo("1.2.3");
+        assertThat(runCount()).isEqualTo(1);
+
+        when(legacySupport.getSession()).thenReturn(mock(MavenSession.class));
+        assertThat(strategy(script).getVersion(a)).isEqualTo("1.2.3");
+        assertThat(runCount()).isEqualTo(2);
+    }
+
+    @Test
+    public void getVersion_RunsAgainInAnotherWorkingDirectory() throws Exception {
+        final String script = script("echo run >> '" + runs + "'; pwd -P");
+        final MavenProject a = project("a");
+        final String userDir = System.getProperty("user.dir");
+        try {
+            System.setProperty("user.dir", folder.getRoot().getPath());
+            assertThat(strategy(script).getVersion(a)).isEqualTo(folder.getRoot().getCanonicalPath());
+            System.setProperty("user.dir", folder.newFolder("other").getPath());
+            assertThat(strategy(script).getVersion(a)).endsWith("other");
+        } finally {
+            System.setProperty("user.dir", userDir);
+        }
+        assertThat(runCount()).isEqualTo(2);
+    }
+
+    @Test
+    public void getVersion_RunsAgainWithOtherCacheEnvironment() throws Exception {
+        final String script = script("echo run >> '" + runs + "'; echo 1.2.3");
+        final MavenProject a = project("a");
+        strategy(script).getVersion(a);
+        final ScriptStrategy strategy = strategy(script);
+        strategy.setCacheEnvironment("PATH");
+        strategy.getVersion(a);
+        strategy.getVersion(a);
+        assertThat(runCount()).isEqualTo(2);
+    }
+
+    @Test
+    public void getVersions_Batch_MapsLinesInOrder() throws Exception {
+        // The versions come back in the order of the input, whatever the projects are called
+        final ScriptStrategy strategy = strategy(script(
+                "while IFS='\t' read -r coordinates basedir; do echo \"${coordinates#*:}-${basedir##*/}\"; done"
+        ));
+        strategy.setBatch(true);
+        final MavenProject b = project("b");
+        final MavenProject a = project("a");
+        final MavenProject c = project("c");
+
+        final Map<MavenProject, String> versions = strategy.getVersions(Arrays.asList(b, a, c));
+        assertThat(versions).containsExactly(entry(b, "b-b"), entry(a, "a-a"), entry(c, "c-c"));
+    }
+
+    @Test
+    public void getVersions_Batch_BlankLinesKeepTheirPlace() throws Exception {
+        final ScriptStrategy strategy = strategy(script("cat > /dev/null; printf '1.0.0\\n\\n3.0.0\\n'"));
+        strategy.setBatch(true);
+        final MavenProject a = project("a");
+        final MavenProject b = project("b");
+        final MavenProject c = project("c");
+
+        assertThat(strategy.getVersions(Arrays.asList(a, b, c)))
+                .containsExactly(entry(a, "1.0.0"), entry(b, ""), entry(c, "3.0.0"));
+    }
+
+    @Test
+    public void getVersions_Batch_TooFewVersions() throws Exception {
+        final ScriptStrategy strategy = strategy(script("cat > /dev/null; echo 1.0.0"));
+        strategy.setBatch(true);
+
+        assertThatThrownBy(() -> strategy.getVersions(Arrays.asList(project("a"), project("b"))))
+                .isInstanceOf(VersionException.class)
+                .hasMessage("The script returned 1 versions for 2 projects");
+    }
+
+    private ScriptStrategy strategy(final String script) {
+        final ScriptStrategy strategy = new ScriptStrategy();
+        strategy.setScript(script);
+        strategy.setLegacySupport(legacySupport);
+        strategy.setLog(mock(Logger.class));
+        return strategy;
+    }
+
+    private String script(final String commands) throws Exception {
+        final File file = new File(folder.getRoot(), "version.sh");
+        Files.write(file.toPath(), ("#!/bin/sh\n" + commands + "\n").getBytes(StandardCharsets.UTF_8));
+        assertThat(file.setExecutable(true)).isTrue();
+        return file.getAbsolutePath();
+    }
+
+    private int runCount() throws Exception {
+        return runs.isFile() ? Files.readAllLines(runs.toPath()).size() : 0;
+    }
+
+    private MavenProject project(final String artifactId) {
+        final MavenProject project = new MavenProject();
+        project.setGroupId("com.example");
+        project.setArtifactId(artifactId);
+        project.setFile(new File(new File(folder.getRoot(), artifactId), "pom.xml"));
+        return project;
+    }
+}
@@ -0,0 +1,69 @@
+package me.ccampo.maven.git.version.strategy.file;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class VersionFileCacheTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void readFirstLine() throws Exception {
+        assertThat(VersionFileCache.readFirstLine(write(""))).isNull();
+        assertThat(VersionFileCache.readFirstLine(write("1.2.3"))).isEqualTo("1.2.3");
+        assertThat(VersionFileCache.readFirstLine(write("1.2.3\nignored"))).isEqualTo("1.2.3");
+        assertThat(VersionFileCache.readFirstLine(write("1.2.3\r\nignored"))).isEqualTo("1.2.3");
+        assertThat(VersionFileCache.readFirstLine(write("\n1.2.3"))).isEmpty();
+    }
+
+    @Test
+    public void readFirstLine_LongerThanTheBuffer() throws Exception {
+        final StringBuilder version = new StringBuilder("1.2.3-");
+        for (int i = 0; i < 1000; i++) {
+            version.append('a');
+        }
+        assertThat(VersionFileCache.readFirstLine(write(version + "\nignored"))).isEqualTo(version.toString());
+    }
+
+    @Test
+    public void getFirstLine_RereadsChangedFiles() throws Exception {
+        final VersionFileCache cache = new VersionFileCache();
+        final File file = write("1.2.3");
+        assertThat(cache.getFirstLine(file)).isEqualTo("1.2.3");
+
+        write("1.2.30");
+        assertThat(cache.getFirstLine(file)).isEqualTo("1.2.30");
+
+        // Same size, so only the modification time tells
+        write("1.2.31");
+        assertThat(file.setLastModified(file.lastModified() + 2000)).isTrue();
+        assertThat(cache.getFirstLine(file)).isEqualTo("1.2.31");
+    }
+
+    @Test
+    public void getManifest_ParsesOnce() throws Exception {
+        final VersionFileCache cache = new VersionFileCache();
+        final File file = write("com.example\\:a=1.2.3");
+        final Map<String, String> versions = cache.getManifest(file, VersionManifest.Format.PROPERTIES);
+        assertThat(versions).containsEntry("com.example:a", "1.2.3");
+        assertThat(cache.getManifest(file, VersionManifest.Format.PROPERTIES)).isSameAs(versions);
+
+        // Read as another format, it is parsed again
+        assertThat(cache.getFirstLine(file)).isEqualTo("com.example\\:a=1.2.3");
+    }
+
+    private File write(final String content) throws Exception {
+        final File file = new File(folder.getRoot(), "VERSION");
+        Files.write(file.toPath(), content.getBytes(StandardCharsets.UTF_8));
+        return file;
+    }
+}
@@ -0,0 +1,106 @@
+package me.ccampo.maven.git.version.strategy.file;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.entry;
+
+public class VersionManifestTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void parse_Properties() throws Exception {
+        final Map<String, String> versions = VersionManifest.parse(
+                write("# versions\n! more\n\ncom.example:a=1.2.3\ncom.example\\:b = 2.0.0 \ncom.example:c=3=x\n"),
+                VersionManifest.Format.PROPERTIES
+        );
+        assertThat(versions).containsOnly(
+                entry("com.example:a", "1.2.3"),
+                entry("com.example:b", "2.0.0"),
+                entry("com.example:c", "3=x")
+        );
+    }
+
+    @Test
+    public void parse_MalformedProperties() {
+        final VersionManifest.Format format = VersionManifest.Format.PROPERTIES;
+        assertThatThrownBy(() -> VersionManifest.parse(write("a=1\ncom.example:b\n"), format))
+                .isInstanceOf(IOException.class)
+                .hasMessageContaining("line 2");
+    }
+
+    @Test
+    public void parse_Json() throws Exception {
+        final Map<String, String> versions = VersionManifest.parse(
+                write("{\n  \"com.example:a\": \"1.2.3\",\n  \"com.example:b\" : 2.0,\n  \"c\\u003ad\": \"3\"\n}\n"),
+                VersionManifest.Format.JSON
+        );
+        assertThat(versions).containsOnly(
+                entry("com.example:a", "1.2.3"),
+                entry("com.example:b", "2.0"),
+                entry("c:d", "3")
+        );
+        assertThat(VersionManifest.parse(write(" { } "), VersionManifest.Format.JSON)).isEmpty();
+    }
+
+    @Test
+    public void parse_MalformedJson() {
+        assertThatThrownBy(() -> VersionManifest.parse(write("{\"a\": [\"1\"]}"), VersionManifest.Format.JSON))
+                .isInstanceOf(IOException.class)
+                .hasMessageContaining("Expected a string");
+        assertThatThrownBy(() -> VersionManifest.parse(write("{\"a\": \"1\"} x"), VersionManifest.Format.JSON))
+                .isInstanceOf(IOException.class)
+                .hasMessageContaining("Expected the end");
+    }
+
+    @Test
+    public void parse_Yaml() throws Exception {
+        final Map<String, String> versions = VersionManifest.parse(
+                write("---\n# versions\ncom.example:a: 1.2.3\n\"com.example:b\": '2.0.0'\n\n  com.example:c:   3\n"),
+                VersionManifest.Format.YAML
+        );
+        assertThat(versions).containsOnly(
+                entry("com.example:a", "1.2.3"),
+                entry("com.example:b", "2.0.0"),
+                entry("com.example:c", "3")
+        );
+    }
+
+    @Test
+    public void parse_YamlInlineComments() throws Exception {
+        final Map<String, String> versions = VersionManifest.parse(
+                write("com.example:a: 1.2.3  # released\ncom.example:b: \"2.0.0 # quoted\" # comment\n" +
+                        "com.example:c: 3.0.0#build\n"),
+                VersionManifest.Format.YAML
+        );
+        assertThat(versions).containsOnly(
+                entry("com.example:a", "1.2.3"),
+                entry("com.example:b", "2.0.0 # quoted"),
+                entry("com.example:c", "3.0.0#build")
+        );
+    }
+
+    @Test
+    public void parse_MalformedYaml() {
+        assertThatThrownBy(() -> VersionManifest.parse(write("a: 1\ncom.example:b\n"), VersionManifest.Format.YAML))
+                .isInstanceOf(IOException.class)
+                .hasMessageContaining("line 2");
+    }
+
+    private File write(final String content) throws Exception {
+        final File file = new File(folder.getRoot(), "versions");
+        Files.write(file.toPath(), content.getBytes(StandardCharsets.UTF_8));
+        return file;
+    }
+}
@@ -0,0 +1,98 @@
+package me.ccampo.maven.git.version.strategy.git;
+
+import org.eclipse.jgit.api.Git;
+import org.eclipse.jgit.api.MergeResult;
+import org.eclipse.jgit.revwalk.RevCommit;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ChangedPathIndexTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private Git git;
+
+    private int commits;
+
+    private RevCommit base;
+
+    @Before
+    public void setUp() throws Exception {
+        git = Git.init().setDirectory(folder.getRoot()).call();
+        commit("a/pom.xml", "libs/b/pom.xml", "libs/c/pom.xml");
+        base = commit("a/src/A.java");
+    }
+
+    @After
+    public void tearDown() {
+        git.close();
+    }
+
+    @Test
+    public void build_CountsCommitsPerDirectory() throws Exception {
+        commit("a/src/A.java");
+        commit("libs/b/src/B.java");
+        commit("a/src/A.java", "libs/c/pom.xml");
+        final RevCommit head = commit("README.md");
+
+        final ChangedPathIndex index = ChangedPathIndex.build(git.getRepository(), head, base);
+        assertThat(index.getCommitCount(null)).isEqualTo(4);
+        assertThat(index.getCommitCount("a")).isEqualTo(2);
+        assertThat(index.getCommitCount("a/src")).isEqualTo(2);
+        assertThat(index.getCommitCount("libs")).isEqualTo(2);
+        assertThat(index.getCommitCount("libs/b")).isEqualTo(1);
+        assertThat(index.getCommitCount("libs/c")).isEqualTo(1);
+        assertThat(index.getCommitCount("libs/d")).isZero();
+    }
+
+    @Test
+    public void build_WithoutBase() throws Exception {
+        final RevCommit head = commit("libs/b/pom.xml");
+
+        final ChangedPathIndex index = ChangedPathIndex.build(git.getRepository(), head, null);
+        assertThat(index.getCommitCount(null)).isEqualTo(3);
+        assertThat(index.getCommitCount("a")).isEqualTo(2);
+        assertThat(index.getCommitCount("libs/b")).isEqualTo(2);
+        assertThat(index.getCommitCount("libs/c")).isEqualTo(1);
+    }
+
+    @Test
+    public void build_MergesOnlyCountWhereTheyChangedSomething() throws Exception {
+        git.checkout().setCreateBranch(true).setName("feature").call();
+        commit("libs/b/src/B.java");
+        git.checkout().setName("master").call();
+        commit("a/src/A.java");
+        final MergeResult merge = git.merge()
+                .include(git.getRepository().resolve("feature"))
+                .setMessage("merge")
+                .call();
+        assertThat(merge.getMergeStatus().isSuccessful()).isTrue();
+
+        final ChangedPathIndex index = ChangedPathIndex.build(git.getRepository(), merge.getNewHead(), base);
+        // The merge differs from both parents as a whole, but from only one of them in each module
+        assertThat(index.getCommitCount(null)).isEqualTo(3);
+        assertThat(index.getCommitCount("a")).isEqualTo(1);
+        assertThat(index.getCommitCount("libs/b")).isEqualTo(1);
+    }
+
+    private RevCommit commit(final String... paths) throws Exception {
+        commits++;
+        for (final String path : paths) {
+            final File file = new File(folder.getRoot(), path);
+            file.getParentFile().mkdirs();
+            Files.write(file.toPath(), ("commit " + commits).getBytes(StandardCharsets.UTF_8));
+            git.add().addFilepattern(path).call();
+        }
+        return git.commit().setMessage("commit " + commits).setAuthor("test", "test@example.com").call();
+    }
+}
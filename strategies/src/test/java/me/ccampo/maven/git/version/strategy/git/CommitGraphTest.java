@@ -0,0 +1,101 @@
+package me.ccampo.maven.git.version.strategy.git;
+
+import org.eclipse.jgit.api.Git;
+import org.eclipse.jgit.lib.ObjectId;
+import org.eclipse.jgit.revwalk.RevCommit;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.Assume.assumeTrue;
+
+public class CommitGraphTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private Git git;
+
+    @Before
+    public void setUp() throws Exception {
+        git = Git.init().setDirectory(folder.getRoot()).call();
+    }
+
+    @After
+    public void tearDown() {
+        git.close();
+    }
+
+    @Test
+    public void open_NoCommitGraph() throws Exception {
+        git.commit().setMessage("first").setAuthor("test", "test@example.com").call();
+        assertThat(CommitGraph.open(git.getRepository())).isNull();
+    }
+
+    @Test
+    public void open_ReadsCommits() throws Exception {
+        final RevCommit first = git.commit().setMessage("first").setAuthor("test", "test@example.com").call();
+        final RevCommit second = git.commit().setMessage("second").setAuthor("test", "test@example.com").call();
+        assumeTrue(writeCommitGraph());
+
+        final CommitGraph graph = CommitGraph.open(git.getRepository());
+        assertThat(graph).isNotNull();
+        assertThat(graph.getCommitCount()).isEqualTo(2);
+
+        final int firstPosition = graph.position(first);
+        final int secondPosition = graph.position(second);
+        assertThat(graph.id(secondPosition)).isEqualTo(second.getId());
+        assertThat(graph.parents(secondPosition)).containsExactly(firstPosition);
+        assertThat(graph.parents(firstPosition)).isEmpty();
+        assertThat(graph.generation(firstPosition)).isEqualTo(1);
+        assertThat(graph.generation(secondPosition)).isEqualTo(2);
+        assertThat(graph.commitTime(secondPosition)).isEqualTo(second.getCommitTime());
+        assertThat(graph.position(ObjectId.zeroId())).isEqualTo(-1);
+    }
+
+    @Test
+    public void open_IgnoredInShallowRepositories() throws Exception {
+        final RevCommit first = git.commit().setMessage("first").setAuthor("test", "test@example.com").call();
+        git.commit().setMessage("second").setAuthor("test", "test@example.com").call();
+        assumeTrue(writeCommitGraph());
+
+        Files.write(
+                new File(git.getRepository().getDirectory(), "shallow").toPath(),
+                (first.name() + "\n").getBytes(StandardCharsets.UTF_8)
+        );
+        assertThat(CommitGraph.open(git.getRepository())).isNull();
+    }
+
+    @Test
+    public void parse_NotACommitGraph() {
+        assertThat(CommitGraph.parse(ByteBuffer.wrap("not a commit-graph".getBytes(StandardCharsets.UTF_8))))
+                .isNull();
+        assertThat(CommitGraph.parse(ByteBuffer.allocate(0))).isNull();
+    }
+
+    // JGit can't write commit-graphs, so this needs git itself
+    private boolean writeCommitGraph() throws Exception {
+        try {
+            final Process process = new ProcessBuilder("git", "commit-graph", "write", "--reachable")
+                    .directory(folder.getRoot())
+                    .redirectErrorStream(true)
+                    .start();
+            while (process.getInputStream().read() != -1) {
+                // Discard
+            }
+            return process.waitFor() == 0 &&
+                    new File(git.getRepository().getDirectory(), "objects/info/commit-graph").isFile();
+        } catch (final IOException e) {
+            return false;
+        }
+    }
+}
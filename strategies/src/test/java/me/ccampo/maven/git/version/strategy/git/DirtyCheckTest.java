@@ -0,0 +1,106 @@
+package me.ccampo.maven.git.version.strategy.git;
+
+import org.eclipse.jgit.api.Git;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class DirtyCheckTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private Git git;
+
+    @Before
+    public void setUp() throws Exception {
+        git = Git.init().setDirectory(folder.getRoot()).call();
+        write("a/file.txt", "a");
+        write("b/file.txt", "b");
+        git.add().addFilepattern(".").call();
+        git.commit().setMessage("initial").setAuthor("test", "test@example.com").call();
+    }
+
+    @After
+    public void tearDown() {
+        git.close();
+    }
+
+    @Test
+    public void isDirty_Clean() throws Exception {
+        for (final DirtyCheck check : DirtyCheck.values()) {
+            assertThat(check.isDirty(git.getRepository(), null)).as(check.name()).isFalse();
+        }
+    }
+
+    @Test
+    public void isDirty_Untracked() throws Exception {
+        write("target/classes/Foo.class", "foo");
+        assertThat(DirtyCheck.FULL.isDirty(git.getRepository(), null)).isTrue();
+        assertThat(DirtyCheck.TRACKED.isDirty(git.getRepository(), null)).isFalse();
+        assertThat(DirtyCheck.STAT.isDirty(git.getRepository(), null)).isFalse();
+    }
+
+    @Test
+    public void isDirty_Modified() throws Exception {
+        write("a/file.txt", "changed");
+        assertThat(DirtyCheck.FULL.isDirty(git.getRepository(), null)).isTrue();
+        assertThat(DirtyCheck.TRACKED.isDirty(git.getRepository(), null)).isTrue();
+        assertThat(DirtyCheck.STAT.isDirty(git.getRepository(), null)).isTrue();
+        assertThat(DirtyCheck.NONE.isDirty(git.getRepository(), null)).isFalse();
+    }
+
+    @Test
+    public void isDirty_Staged() throws Exception {
+        write("a/new.txt", "new");
+        git.add().addFilepattern("a/new.txt").call();
+        assertThat(DirtyCheck.TRACKED.isDirty(git.getRepository(), null)).isTrue();
+        assertThat(DirtyCheck.STAT.isDirty(git.getRepository(), null)).isTrue();
+    }
+
+    @Test
+    public void isDirty_Deleted() throws Exception {
+        Files.delete(new File(folder.getRoot(), "b/file.txt").toPath());
+        assertThat(DirtyCheck.TRACKED.isDirty(git.getRepository(), null)).isTrue();
+        assertThat(DirtyCheck.STAT.isDirty(git.getRepository(), null)).isTrue();
+    }
+
+    @Test
+    public void isDirty_ScopedToPath() throws Exception {
+        write("a/file.txt", "changed");
+        write("b/untracked.txt", "untracked");
+        for (final DirtyCheck check : new DirtyCheck[]{DirtyCheck.FULL, DirtyCheck.TRACKED, DirtyCheck.STAT}) {
+            assertThat(check.isDirty(git.getRepository(), "a")).as(check.name()).isTrue();
+        }
+        assertThat(DirtyCheck.FULL.isDirty(git.getRepository(), "b")).isTrue();
+        assertThat(DirtyCheck.TRACKED.isDirty(git.getRepository(), "b")).isFalse();
+        assertThat(DirtyCheck.STAT.isDirty(git.getRepository(), "b")).isFalse();
+    }
+
+    @Test
+    public void pathOf() throws Exception {
+        assertThat(DirtyCheck.pathOf(git.getRepository(), folder.getRoot())).isNull();
+        assertThat(DirtyCheck.pathOf(git.getRepository(), new File(folder.getRoot(), "a"))).isEqualTo("a");
+    }
+
+    @Test
+    public void of() {
+        assertThat(DirtyCheck.of(" Tracked ")).isEqualTo(DirtyCheck.TRACKED);
+        assertThatThrownBy(() -> DirtyCheck.of("sometimes")).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private void write(final String path, final String content) throws Exception {
+        final File file = new File(folder.getRoot(), path);
+        file.getParentFile().mkdirs();
+        Files.write(file.toPath(), content.getBytes(StandardCharsets.UTF_8));
+    }
+}
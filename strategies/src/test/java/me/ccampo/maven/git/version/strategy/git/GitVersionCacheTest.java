@@ -0,0 +1,57 @@
+package me.ccampo.maven.git.version.strategy.git;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class GitVersionCacheTest {
+
+    private static final RepositoryKey KEY = RepositoryKey.of(new File("/repo/.git"), "58de199");
+
+    private GitVersionCache cache;
+
+    private AtomicInteger calculations;
+
+    @Before
+    public void setUp() {
+        cache = new GitVersionCache();
+        calculations = new AtomicInteger();
+    }
+
+    @Test
+    public void get_CalculatesOncePerKey() throws Exception {
+        final CalculatedVersion first = cache.get(KEY, this::calculate);
+        final CalculatedVersion second = cache.get(KEY, this::calculate);
+        assertThat(second).isSameAs(first);
+        assertThat(calculations.get()).isEqualTo(1);
+    }
+
+    @Test
+    public void get_DifferentHeadIsRecalculated() throws Exception {
+        cache.get(KEY, this::calculate);
+        cache.get(RepositoryKey.of(KEY.gitDir, "0a1b2c3"), this::calculate);
+        assertThat(calculations.get()).isEqualTo(2);
+    }
+
+    @Test
+    public void bindSession_NewSessionClearsCache() throws Exception {
+        cache.bindSession("first");
+        cache.get(KEY, this::calculate);
+        cache.bindSession("first");
+        cache.get(KEY, this::calculate);
+        assertThat(calculations.get()).isEqualTo(1);
+
+        cache.bindSession("second");
+        cache.get(KEY, this::calculate);
+        assertThat(calculations.get()).isEqualTo(2);
+    }
+
+    private CalculatedVersion calculate() {
+        calculations.incrementAndGet();
+        return CalculatedVersion.of(1, 2, 3, 4, false, "58de199");
+    }
+}
@@ -0,0 +1,317 @@
+package me.ccampo.maven.git.version.strategy.git;
+
+import fr.brouillard.oss.jgitver.GitVersionCalculator;
+import fr.brouillard.oss.jgitver.metadata.Metadatas;
+import org.eclipse.jgit.api.Git;
+import org.eclipse.jgit.lib.CommitBuilder;
+import org.eclipse.jgit.lib.Constants;
+import org.eclipse.jgit.lib.ObjectId;
+import org.eclipse.jgit.lib.ObjectInserter;
+import org.eclipse.jgit.lib.PersonIdent;
+import org.eclipse.jgit.lib.Ref;
+import org.eclipse.jgit.lib.RefUpdate;
+import org.eclipse.jgit.revwalk.RevCommit;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.Assume.assumeTrue;
+
+/**
+ * Checks that the calculator agrees with jgitver, configured the way {@code GitVersionStrategy} used to configure it,
+ * both with and without a commit-graph (written by the git command line, when available).
+ */
+public class HistoryVersionCalculatorTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private Git git;
+
+    private int commits;
+
+    @Before
+    public void setUp() throws Exception {
+        git = Git.init().setDirectory(folder.getRoot()).call();
+    }
+
+    @After
+    public void tearDown() {
+        git.close();
+    }
+
+    @Test
+    public void calculate_NoTags() throws Exception {
+        commit();
+        commit();
+        commit();
+        assertSameAsJgitver();
+    }
+
+    @Test
+    public void calculate_AnnotatedTagOnHead() throws Exception {
+        commit();
+        git.tag().setName("v1.2.3").setAnnotated(true).setMessage("release").call();
+        assertSameAsJgitver();
+    }
+
+    @Test
+    public void calculate_LightweightTagOnHead() throws Exception {
+        commit();
+        git.tag().setName("1.2.3").setAnnotated(false).call();
+        assertSameAsJgitver();
+    }
+
+    @Test
+    public void calculate_BothTagKindsOnHead_CleanAndDirty() throws Exception {
+        commit();
+        git.tag().setName("1.0.0").setAnnotated(true).setMessage("release").call();
+        git.tag().setName("2.0.0").setAnnotated(false).call();
+        assertSameAsJgitver();
+        final CalculatedVersion clean = calculate();
+        assertThat(clean.dirtySensitive).isTrue();
+        assertThat(clean.holdsFor(true)).isFalse();
+
+        Files.write(new File(folder.getRoot(), "untracked.txt").toPath(), "x".getBytes(StandardCharsets.UTF_8));
+        assertSameAsJgitver();
+        assertThat(calculate().major).isNotEqualTo(clean.major);
+    }
+
+    @Test
+    public void calculate_AnnotatedTagBehindHead() throws Exception {
+        commit();
+        git.tag().setName("1.2.3").setAnnotated(true).setMessage("release").call();
+        commit();
+        commit();
+        assertSameAsJgitver();
+    }
+
+    @Test
+    public void calculate_LightweightTagBehindHead() throws Exception {
+        commit();
+        git.tag().setName("1.2.3").setAnnotated(false).call();
+        commit();
+        assertSameAsJgitver();
+    }
+
+    @Test
+    public void calculate_MaxVersionWinsOverNearest() throws Exception {
+        commit();
+        git.tag().setName("2.0.0").setAnnotated(true).setMessage("release").call();
+        commit();
+        git.tag().setName("1.5.0").setAnnotated(true).setMessage("release").call();
+        commit();
+        git.tag().setName("not-a-version").call();
+        commit();
+        assertSameAsJgitver();
+    }
+
+    @Test
+    public void calculate_Merges() throws Exception {
+        final RevCommit base = commit();
+        git.tag().setName("1.0.0").setAnnotated(true).setMessage("release").call();
+
+        git.branchCreate().setName("feature").call();
+        git.checkout().setName("feature").call();
+        commit("feature.txt");
+        commit("feature.txt");
+        commit("feature.txt");
+        git.tag().setName("1.1.0").setAnnotated(false).call();
+        commit("feature.txt");
+
+        git.checkout().setName("master").call();
+        commit();
+        assertThat(git.merge().include(git.getRepository().resolve("feature")).setMessage("merge").call()
+                .getMergeStatus().isSuccessful()).isTrue();
+        commit();
+        assertSameAsJgitver();
+
+        // A tag on the short side of the merge
+        git.tag().setName("3.0.0").setObjectId(git.getRepository().parseCommit(base)).setAnnotated(false).call();
+        assertSameAsJgitver();
+    }
+
+    @Test
+    public void calculate_StaleCommitGraph() throws Exception {
+        commit();
+        git.tag().setName("1.0.0").setAnnotated(true).setMessage("release").call();
+        commit();
+        assumeTrue(writeCommitGraph());
+
+        // Newer than the graph, including the highest tag
+        commit();
+        git.tag().setName("1.1.0").setAnnotated(false).call();
+        commit();
+        assertThat(calculate()).isEqualTo(jgitver());
+
+        git.tagDelete().setTags("1.1.0").call();
+        assertThat(calculate()).isEqualTo(jgitver());
+    }
+
+    @Test
+    public void calculate_OctopusMerge() throws Exception {
+        final RevCommit base = commit();
+        git.tag().setName("1.0.0").setAnnotated(true).setMessage("release").call();
+        final RevCommit a = commit();
+        git.checkout().setStartPoint(base).setCreateBranch(true).setName("b").call();
+        final RevCommit b = commit("b.txt");
+        git.checkout().setStartPoint(base).setCreateBranch(true).setName("c").call();
+        final RevCommit c = commit("c.txt");
+        git.tag().setName("1.5.0").setAnnotated(false).call();
+
+        final ObjectId merge;
+        try (final ObjectInserter inserter = git.getRepository().newObjectInserter()) {
+            final CommitBuilder builder = new CommitBuilder();
+            builder.setTreeId(c.getTree());
+            builder.setParentIds(a, b, c);
+            builder.setAuthor(new PersonIdent("test", "test@example.com"));
+            builder.setCommitter(new PersonIdent("test", "test@example.com"));
+            builder.setMessage("octopus");
+            merge = inserter.insert(builder);
+            inserter.flush();
+        }
+        final RefUpdate update = git.getRepository().updateRef("refs/heads/c");
+        update.setNewObjectId(merge);
+        update.forceUpdate();
+        commit("c.txt");
+        assertSameAsJgitver();
+    }
+
+    @Test
+    public void calculate_MaxDepth_TagWithinDepth() throws Exception {
+        commit();
+        git.tag().setName("1.0.0").setAnnotated(true).setMessage("release").call();
+        commit();
+        commit();
+        final CalculatedVersion expected = jgitver();
+        assertThat(calculate(2)).isEqualTo(expected);
+        assertThat(calculate(10)).isEqualTo(expected);
+    }
+
+    @Test
+    public void calculate_MaxDepth_UntaggedHistoryWithinDepth() throws Exception {
+        commit();
+        commit();
+        commit();
+        assertThat(calculate(2)).isEqualTo(jgitver());
+    }
+
+    @Test
+    public void calculate_MaxDepth_Truncated() throws Exception {
+        commit();
+        git.tag().setName("1.0.0").setAnnotated(true).setMessage("release").call();
+        commit();
+        commit();
+        final RevCommit head = commit();
+
+        final CalculatedVersion version = calculate(2);
+        assertThat(version.truncated).isTrue();
+        assertThat(version.major).isZero();
+        assertThat(version.minor).isZero();
+        assertThat(version.patch).isZero();
+        assertThat(version.commitDistance).isEqualTo(2);
+        assertThat(version.sha1).isEqualTo(head.name().substring(0, 8));
+    }
+
+    private RevCommit commit() throws Exception {
+        return commit("file.txt");
+    }
+
+    private RevCommit commit(final String fileName) throws Exception {
+        final File file = new File(folder.getRoot(), fileName);
+        Files.write(file.toPath(), ("commit " + commits++).getBytes(StandardCharsets.UTF_8));
+        git.add().addFilepattern(fileName).call();
+        return git.commit().setMessage("commit " + commits).setAuthor("test", "test@example.com").call();
+    }
+
+    private void assertSameAsJgitver() throws Exception {
+        final CalculatedVersion expected = jgitver();
+        assertThat(calculate()).isEqualTo(expected);
+
+        if (writeCommitGraph()) {
+            assertThat(calculate()).as("with commit-graph").isEqualTo(expected);
+            Files.delete(commitGraph().toPath());
+        }
+    }
+
+    private CalculatedVersion calculate() throws Exception {
+        final boolean dirty = !git.status().call().isClean();
+        return HistoryVersionCalculator.calculate(git.getRepository(), dirty);
+    }
+
+    private CalculatedVersion calculate(final int maxDepth) throws Exception {
+        final boolean dirty = !git.status().call().isClean();
+        return HistoryVersionCalculator.calculate(git.getRepository(), TagIndex.inMemory(), maxDepth, dirty);
+    }
+
+    private CalculatedVersion jgitver() throws Exception {
+        try (final GitVersionCalculator calculator = GitVersionCalculator.location(folder.getRoot())) {
+            calculator.setUseDistance(true);
+            calculator.setUseGitCommitId(true);
+            calculator.setAutoIncrementPatch(true);
+            calculator.setNonQualifierBranches("master");
+            final CalculatedVersion version = CalculatedVersion.of(calculator);
+
+            // jgitver only names the tag the version is based on
+            final String baseTag = calculator.meta(Metadatas.BASE_TAG).orElse(null);
+            final ObjectId baseCommit = baseTag != null
+                    ? git.getRepository().resolve(Constants.R_TAGS + baseTag + "^{commit}")
+                    : null;
+            return version
+                    .basedOn(
+                            baseCommit != null ? baseCommit.name() : null,
+                            version.commitDistance > 0 && baseTag != null && isAnnotated(baseTag)
+                    )
+                    .withDirtySensitive(version.commitDistance == 0 && headHasBothTagKinds());
+        }
+    }
+
+    private boolean isAnnotated(final String tag) throws Exception {
+        final Ref ref = git.getRepository().exactRef(Constants.R_TAGS + tag);
+        return git.getRepository().peel(ref).getPeeledObjectId() != null;
+    }
+
+    // Nor whether dirtiness chose between the tags on HEAD
+    private boolean headHasBothTagKinds() throws Exception {
+        final ObjectId head = git.getRepository().resolve(Constants.HEAD);
+        boolean annotated = false;
+        boolean lightweight = false;
+        for (final Ref ref : git.tagList().call()) {
+            final Ref peeled = git.getRepository().peel(ref);
+            if (peeled.getPeeledObjectId() != null) {
+                annotated |= peeled.getPeeledObjectId().equals(head);
+            } else {
+                lightweight |= ref.getObjectId().equals(head);
+            }
+        }
+        return annotated && lightweight;
+    }
+
+    // JGit can't write commit-graphs, so this needs git itself
+    private boolean writeCommitGraph() throws Exception {
+        try {
+            final Process process = new ProcessBuilder("git", "commit-graph", "write", "--reachable")
+                    .directory(folder.getRoot())
+                    .redirectErrorStream(true)
+                    .start();
+            while (process.getInputStream().read() != -1) {
+                // Discard
+            }
+            return process.waitFor() == 0 && commitGraph().isFile();
+        } catch (final IOException e) {
+            return false;
+        }
+    }
+
+    private File commitGraph() {
+        return new File(git.getRepository().getDirectory(), "objects/info/commit-graph");
+    }
+}
@@ -0,0 +1,157 @@
+package me.ccampo.maven.git.version.strategy.git;
+
+import org.eclipse.jgit.api.Git;
+import org.eclipse.jgit.dircache.DirCache;
+import org.eclipse.jgit.lib.StoredConfig;
+import org.junit.After;
+import org.junit.AfterClass;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Checks that the parallel check agrees with the sequential one, on enough files to be split among several tasks.
+ */
+public class ParallelDirtyCheckTest {
+
+    private static final int DIRECTORIES = 20;
+    private static final int FILES_PER_DIRECTORY = 50;
+
+    private static ForkJoinPool pool;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private Git git;
+
+    @BeforeClass
+    public static void setUpClass() {
+        pool = new ForkJoinPool(4);
+    }
+
+    @AfterClass
+    public static void tearDownClass() {
+        pool.shutdown();
+    }
+
+    @Before
+    public void setUp() throws Exception {
+        git = Git.init().setDirectory(folder.getRoot()).call();
+        for (int d = 0; d < DIRECTORIES; d++) {
+            for (int f = 0; f < FILES_PER_DIRECTORY; f++) {
+                write("dir" + d + "/file" + f + ".txt", "content " + f);
+            }
+        }
+        git.add().addFilepattern(".").call();
+        git.commit().setMessage("initial").setAuthor("test", "test@example.com").call();
+        // Make sure no entry is racily clean
+        Thread.sleep(10);
+    }
+
+    @After
+    public void tearDown() {
+        git.close();
+    }
+
+    @Test
+    public void isDirty_Clean() throws Exception {
+        assertSameAsSequential(null, false);
+    }
+
+    @Test
+    public void isDirty_Untracked() throws Exception {
+        write("target/classes/Foo.class", "foo");
+        assertSameAsSequential(null, false);
+    }
+
+    @Test
+    public void isDirty_Modified() throws Exception {
+        write("dir17/file42.txt", "changed content");
+        assertSameAsSequential(null, true);
+        assertSameAsSequential("dir17", true);
+        assertSameAsSequential("dir3", false);
+    }
+
+    @Test
+    public void isDirty_Touched() throws Exception {
+        final File file = new File(folder.getRoot(), "dir5/file5.txt");
+        assertThat(file.setLastModified(file.lastModified() - 60_000)).isTrue();
+        assertThat(DirtyCheck.TRACKED.isDirty(git.getRepository(), null, pool)).isFalse();
+        assertThat(DirtyCheck.STAT.isDirty(git.getRepository(), null, pool)).isTrue();
+    }
+
+    @Test
+    public void isDirty_SameSizeChange() throws Exception {
+        final File file = new File(folder.getRoot(), "dir9/file1.txt");
+        final long lastModified = file.lastModified();
+        write("dir9/file1.txt", "CONTENT 1");
+        assertThat(file.setLastModified(lastModified + 60_000)).isTrue();
+        assertSameAsSequential(null, true);
+    }
+
+    @Test
+    public void isDirty_RacilyClean() throws Exception {
+        // What JGit does to entries modified in the same instant the index is written: their length is zeroed. Locked
+        // without the repository, which would otherwise check the entry again and undo it.
+        final DirCache index = DirCache.lock(git.getRepository().getIndexFile(), git.getRepository().getFS());
+        try {
+            index.getEntry("dir4/file4.txt").smudgeRacilyClean();
+            index.write();
+            index.commit();
+        } finally {
+            index.unlock();
+        }
+        assertThat(git.getRepository().readDirCache().getEntry("dir4/file4.txt").isSmudged()).isTrue();
+
+        assertSameAsSequential(null, false);
+    }
+
+    @Test
+    public void isDirty_Deleted() throws Exception {
+        Files.delete(new File(folder.getRoot(), "dir0/file0.txt").toPath());
+        assertSameAsSequential(null, true);
+    }
+
+    @Test
+    public void isDirty_Staged() throws Exception {
+        write("dir12/new.txt", "new");
+        git.add().addFilepattern("dir12/new.txt").call();
+        assertSameAsSequential(null, true);
+        assertSameAsSequential("dir11", false);
+    }
+
+    @Test
+    public void isDirty_LineEndingConversion() throws Exception {
+        final StoredConfig config = git.getRepository().getConfig();
+        config.setString("core", null, "autocrlf", "input");
+        config.save();
+
+        // Touched, so the content must be compared, but through JGit since it may be converted
+        final File file = new File(folder.getRoot(), "dir2/file2.txt");
+        assertThat(file.setLastModified(file.lastModified() + 60_000)).isTrue();
+        assertThat(DirtyCheck.TRACKED.isDirty(git.getRepository(), null)).isFalse();
+        assertThat(DirtyCheck.TRACKED.isDirty(git.getRepository(), null, pool)).isFalse();
+    }
+
+    private void assertSameAsSequential(final String path, final boolean expected) throws Exception {
+        for (final DirtyCheck check : new DirtyCheck[]{DirtyCheck.TRACKED, DirtyCheck.STAT}) {
+            assertThat(check.isDirty(git.getRepository(), path)).as(check.name()).isEqualTo(expected);
+            assertThat(check.isDirty(git.getRepository(), path, pool)).as(check.name()).isEqualTo(expected);
+        }
+    }
+
+    private void write(final String path, final String content) throws Exception {
+        final File file = new File(folder.getRoot(), path);
+        file.getParentFile().mkdirs();
+        Files.write(file.toPath(), content.getBytes(StandardCharsets.UTF_8));
+    }
+}
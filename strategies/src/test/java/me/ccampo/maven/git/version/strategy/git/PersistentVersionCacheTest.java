@@ -0,0 +1,92 @@
+package me.ccampo.maven.git.version.strategy.git;
+
+import org.eclipse.jgit.api.Git;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class PersistentVersionCacheTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private Git git;
+
+    private PersistentVersionCache cache;
+
+    @Before
+    public void setUp() throws Exception {
+        git = Git.init().setDirectory(folder.getRoot()).call();
+        git.commit().setMessage("initial").setAuthor("test", "test@example.com").call();
+        cache = PersistentVersionCache.forRepository(git.getRepository());
+    }
+
+    @After
+    public void tearDown() {
+        git.close();
+    }
+
+    @Test
+    public void load_NoCacheFile() throws Exception {
+        final String fingerprint = PersistentVersionCache.fingerprint(git.getRepository(), "");
+        assertThat(cache.load(fingerprint)).isNull();
+    }
+
+    @Test
+    public void storeAndLoad() throws Exception {
+        final String fingerprint = PersistentVersionCache.fingerprint(git.getRepository(), "");
+        final CalculatedVersion version = CalculatedVersion.of(1, 2, 3, 4, true, "58de199");
+        cache.store(fingerprint, version);
+
+        assertThat(new File(git.getRepository().getDirectory(), PersistentVersionCache.FILE_NAME)).isFile();
+        assertThat(cache.load(fingerprint)).isEqualTo(version);
+    }
+
+    @Test
+    public void storeAndLoad_DirtySensitive() throws Exception {
+        final String fingerprint = PersistentVersionCache.fingerprint(git.getRepository(), "");
+        final CalculatedVersion version = CalculatedVersion.of(1, 2, 3, 0, false, "58de199").withDirtySensitive(true);
+        cache.store(fingerprint, version);
+        assertThat(cache.load(fingerprint)).isEqualTo(version);
+    }
+
+    @Test
+    public void storeAndLoad_PatchIncremented() throws Exception {
+        final String fingerprint = PersistentVersionCache.fingerprint(git.getRepository(), "");
+        final String baseCommit = git.getRepository().resolve("HEAD").name();
+        final CalculatedVersion version = CalculatedVersion.of(1, 2, 4, 1, false, "58de199").basedOn(baseCommit, true);
+        cache.store(fingerprint, version);
+        assertThat(cache.load(fingerprint)).isEqualTo(version);
+    }
+
+    @Test
+    public void fingerprint_ChangesWithTags() throws Exception {
+        final String before = PersistentVersionCache.fingerprint(git.getRepository(), "");
+        cache.store(before, CalculatedVersion.of(1, 2, 3, 4, false, "58de199"));
+
+        git.tag().setName("1.2.3").call();
+
+        final String after = PersistentVersionCache.fingerprint(git.getRepository(), "");
+        assertThat(after).isNotEqualTo(before);
+        assertThat(cache.load(after)).isNull();
+    }
+
+    @Test
+    public void fingerprint_ChangesWithHead() throws Exception {
+        final String before = PersistentVersionCache.fingerprint(git.getRepository(), "");
+        git.commit().setMessage("second").setAuthor("test", "test@example.com").call();
+        assertThat(PersistentVersionCache.fingerprint(git.getRepository(), "")).isNotEqualTo(before);
+    }
+
+    @Test
+    public void fingerprint_ChangesWithSettings() throws Exception {
+        assertThat(PersistentVersionCache.fingerprint(git.getRepository(), "a"))
+                .isNotEqualTo(PersistentVersionCache.fingerprint(git.getRepository(), "b"));
+    }
+}
@@ -0,0 +1,105 @@
+package me.ccampo.maven.git.version.strategy.git;
+
+import org.eclipse.jgit.api.Git;
+import org.eclipse.jgit.lib.Constants;
+import org.eclipse.jgit.lib.Repository;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class SharedRepositoryCacheTest {
+
+    private static final String SETTINGS = "settings";
+    private static final CalculatedVersion VERSION = CalculatedVersion.of(1, 2, 3, 4, false, "58de199");
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private final AtomicLong now = new AtomicLong();
+    private final SharedRepositoryCache cache = new SharedRepositoryCache(now::get);
+
+    private Git git;
+    private File gitDir;
+    private RepositoryKey key;
+
+    @Before
+    public void setUp() throws Exception {
+        git = Git.init().setDirectory(folder.getRoot()).call();
+        git.commit().setMessage("first").setAuthor("test", "test@example.com").call();
+        gitDir = git.getRepository().getDirectory().getCanonicalFile();
+        key = RepositoryKey.forRepository(git.getRepository());
+    }
+
+    @After
+    public void tearDown() {
+        git.close();
+    }
+
+    @Test
+    public void openRepository_KeepsRepositoryOpen() throws Exception {
+        final Repository repository;
+        try (final Repository opened = cache.openRepository(gitDir)) {
+            repository = opened;
+        }
+        try (final Repository opened = cache.openRepository(gitDir)) {
+            assertThat(opened).isSameAs(repository);
+            assertThat(opened.resolve(Constants.HEAD).name()).isEqualTo(key.head);
+        }
+    }
+
+    @Test
+    public void getVersion_ExpiresAfterMaxAge() throws Exception {
+        cache.openRepository(gitDir).close();
+        cache.putVersion(key, SETTINGS, VERSION);
+
+        now.addAndGet(999);
+        assertThat(cache.getVersion(key, SETTINGS, 1000)).isEqualTo(VERSION);
+        assertThat(cache.getVersion(key, "other settings", 1000)).isNull();
+        now.addAndGet(1);
+        assertThat(cache.getVersion(key, SETTINGS, 1000)).isNull();
+    }
+
+    @Test
+    public void getVersion_InvalidatedByNewTag() throws Exception {
+        cache.openRepository(gitDir).close();
+        cache.putVersion(key, SETTINGS, VERSION);
+        assertThat(cache.getVersion(key, SETTINGS, Long.MAX_VALUE)).isEqualTo(VERSION);
+
+        git.tag().setName("1.0.0").call();
+        assertThat(awaitInvalidation()).isTrue();
+    }
+
+    @Test
+    public void getVersion_InvalidatedByTagInNewDirectory() throws Exception {
+        cache.openRepository(gitDir).close();
+        cache.putVersion(key, SETTINGS, VERSION);
+        git.tag().setName("svc-a/1.0.0").call();
+        assertThat(awaitInvalidation()).isTrue();
+
+        // refs/tags/svc-a didn't exist when the repository was opened
+        cache.putVersion(key, SETTINGS, VERSION);
+        assertThat(cache.getVersion(key, SETTINGS, Long.MAX_VALUE)).isEqualTo(VERSION);
+        git.tag().setName("svc-a/1.1.0").call();
+        assertThat(awaitInvalidation()).isTrue();
+    }
+
+    // Watch events arrive asynchronously
+    private boolean awaitInvalidation() throws InterruptedException {
+        final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (cache.getVersion(key, SETTINGS, Long.MAX_VALUE) != null) {
+            if (System.nanoTime() > deadline) {
+                return false;
+            }
+            Thread.sleep(10);
+        }
+        return true;
+    }
+}
@@ -0,0 +1,140 @@
+package me.ccampo.maven.git.version.strategy.git;
+
+import me.ccampo.maven.git.version.strategy.git.TagIndex.Tag;
+import org.eclipse.jgit.api.Git;
+import org.eclipse.jgit.lib.ObjectId;
+import org.eclipse.jgit.lib.Ref;
+import org.eclipse.jgit.revwalk.RevCommit;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class TagIndexTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private Git git;
+
+    private RevCommit first;
+    private RevCommit second;
+
+    @Before
+    public void setUp() throws Exception {
+        git = Git.init().setDirectory(folder.getRoot()).call();
+        first = git.commit().setMessage("first").setAuthor("test", "test@example.com").call();
+        git.tag().setName("v1.0.0").setAnnotated(true).setMessage("release").call();
+        git.tag().setName("1.0.1").setAnnotated(false).call();
+        git.tag().setName("not-a-version").call();
+        second = git.commit().setMessage("second").setAuthor("test", "test@example.com").call();
+    }
+
+    @After
+    public void tearDown() {
+        git.close();
+    }
+
+    @Test
+    public void update_GroupsVersionTagsByCommit() throws Exception {
+        final Map<ObjectId, List<Tag>> tags = TagIndex.inMemory().update(git.getRepository());
+
+        assertThat(tags).containsOnlyKeys(first.getId());
+        assertThat(names(tags.get(first))).containsExactly("refs/tags/v1.0.0", "refs/tags/1.0.1");
+        final Tag annotated = tags.get(first).get(0);
+        assertThat(annotated.annotated).isTrue();
+        assertThat(annotated.version.toString()).isEqualTo("1.0.0");
+    }
+
+    @Test
+    public void update_FollowsAddedMovedAndDeletedTags() throws Exception {
+        final TagIndex index = TagIndex.inMemory();
+        index.update(git.getRepository());
+
+        git.tag().setName("2.0.0").call();
+        git.tag().setName("1.0.1").setObjectId(second).setForceUpdate(true).call();
+        git.tagDelete().setTags("v1.0.0").call();
+
+        final Map<ObjectId, List<Tag>> tags = index.update(git.getRepository());
+        assertThat(tags).containsOnlyKeys(second.getId());
+        assertThat(names(tags.get(second))).containsExactly("refs/tags/2.0.0", "refs/tags/1.0.1");
+    }
+
+    @Test
+    public void forRepository_ReusesPersistedEntries() throws Exception {
+        TagIndex.forRepository(git.getRepository()).update(git.getRepository());
+        final File file = new File(git.getRepository().getDirectory(), TagIndex.FILE_NAME);
+        assertThat(file).isFile();
+
+        // Entries for unchanged refs are trusted as is, so pointing one elsewhere shows it was not peeled again
+        final Ref ref = git.getRepository().exactRef("refs/tags/v1.0.0");
+        final String contents = new String(Files.readAllBytes(file.toPath()), StandardCharsets.UTF_8);
+        Files.write(file.toPath(), contents.replace(
+                ref.getObjectId().name() + " " + first.name(),
+                ref.getObjectId().name() + " " + second.name()
+        ).getBytes(StandardCharsets.UTF_8));
+
+        final Map<ObjectId, List<Tag>> tags = TagIndex.forRepository(git.getRepository()).update(git.getRepository());
+        assertThat(names(tags.get(second))).containsExactly("refs/tags/v1.0.0");
+        assertThat(names(tags.get(first))).containsExactly("refs/tags/1.0.1");
+    }
+
+    @Test
+    public void forRepository_IgnoresCorruptFile() throws Exception {
+        Files.write(new File(git.getRepository().getDirectory(), TagIndex.FILE_NAME).toPath(),
+                "format=1\nrefs/tags/1.0.1=garbage\n".getBytes(StandardCharsets.UTF_8));
+
+        final Map<ObjectId, List<Tag>> tags = TagIndex.forRepository(git.getRepository()).update(git.getRepository());
+        assertThat(names(tags.get(first))).containsExactly("refs/tags/v1.0.0", "refs/tags/1.0.1");
+    }
+
+    @Test
+    public void update_OnlyLoadsTagsWithPrefix() throws Exception {
+        git.tag().setName("svc-a/1.2.0").setObjectId(first).call();
+        git.tag().setName("svc-a/v1.3.0").setAnnotated(true).setMessage("release").call();
+        git.tag().setName("svc-b/2.0.0").call();
+        git.tag().setName("svc-a/not-a-version").call();
+
+        final Map<ObjectId, List<Tag>> tags = TagIndex.inMemory(TagFilter.of("svc-a/", null, null))
+                .update(git.getRepository());
+        assertThat(tags).containsOnlyKeys(first.getId(), second.getId());
+        assertThat(names(tags.get(first))).containsExactly("refs/tags/svc-a/1.2.0");
+        assertThat(names(tags.get(second))).containsExactly("refs/tags/svc-a/v1.3.0");
+        assertThat(tags.get(second).get(0).version.toString()).isEqualTo("1.3.0");
+    }
+
+    @Test
+    public void update_AppliesIncludesAndExcludes() throws Exception {
+        git.tag().setName("v2.0.0-rc1").call();
+        git.tag().setName("v2.0.0").call();
+
+        final Map<ObjectId, List<Tag>> tags = TagIndex.inMemory(TagFilter.of(null, "v.*", ".*-rc\\d+"))
+                .update(git.getRepository());
+        assertThat(names(tags.get(first))).containsExactly("refs/tags/v1.0.0");
+        assertThat(names(tags.get(second))).containsExactly("refs/tags/v2.0.0");
+    }
+
+    @Test
+    public void forRepository_IgnoresFileOfOtherFilter() throws Exception {
+        TagIndex.forRepository(git.getRepository()).update(git.getRepository());
+
+        final Map<ObjectId, List<Tag>> tags = TagIndex.forRepository(git.getRepository(), TagFilter.of("", "1.*", ""))
+                .update(git.getRepository());
+        assertThat(tags).containsOnlyKeys(first.getId());
+        assertThat(names(tags.get(first))).containsExactly("refs/tags/1.0.1");
+    }
+
+    private static List<String> names(final List<Tag> tags) {
+        return tags.stream().map(tag -> tag.name).collect(Collectors.toList());
+    }
+}
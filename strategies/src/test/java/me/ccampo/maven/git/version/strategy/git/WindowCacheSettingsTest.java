@@ -0,0 +1,54 @@
+package me.ccampo.maven.git.version.strategy.git;
+
+import org.junit.After;
+import org.junit.Test;
+
+import static me.ccampo.maven.git.version.strategy.git.WindowCacheSettings.Outcome.CONFLICT;
+import static me.ccampo.maven.git.version.strategy.git.WindowCacheSettings.Outcome.INSTALLED;
+import static me.ccampo.maven.git.version.strategy.git.WindowCacheSettings.Outcome.UNCHANGED;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class WindowCacheSettingsTest {
+
+    @After
+    public void tearDown() {
+        // Back to JGit's defaults for the other tests
+        WindowCacheSettings.apply(new Object(), null, null, null, null);
+    }
+
+    @Test
+    public void apply_InstallsOnlyWhenChanged() {
+        final Object first = new Object();
+        assertThat(WindowCacheSettings.apply(first, "64k", "256m", "50m", "true")).isEqualTo(INSTALLED);
+        assertThat(WindowCacheSettings.apply(first, "64k", "256m", "50m", "true")).isEqualTo(UNCHANGED);
+
+        // A later session keeps what is installed if it asks for the same
+        final Object second = new Object();
+        assertThat(WindowCacheSettings.apply(second, "64k", "256m", "50m", "true")).isEqualTo(UNCHANGED);
+
+        assertThat(WindowCacheSettings.apply(new Object(), "", " ", null, null)).isEqualTo(INSTALLED);
+    }
+
+    @Test
+    public void apply_KeepsTheFirstSettingsOfASession() {
+        final Object session = new Object();
+        assertThat(WindowCacheSettings.apply(session, "64k", null, null, null)).isEqualTo(INSTALLED);
+        assertThat(WindowCacheSettings.apply(session, "128k", null, null, null)).isEqualTo(CONFLICT);
+        assertThat(WindowCacheSettings.apply(session, "64k", null, null, null)).isEqualTo(UNCHANGED);
+
+        assertThat(WindowCacheSettings.apply(new Object(), "128k", null, null, null)).isEqualTo(INSTALLED);
+    }
+
+    @Test
+    public void apply_Invalid() {
+        final Object session = new Object();
+        assertThatThrownBy(() -> WindowCacheSettings.apply(session, "lots", null, null, null))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> WindowCacheSettings.apply(session, "12k", null, null, null))
+                .isInstanceOf(IllegalArgumentException.class);
+
+        // Invalid settings don't count as applied
+        assertThat(WindowCacheSettings.apply(session, "64k", null, null, null)).isEqualTo(INSTALLED);
+    }
+}
@@ -0,0 +1,104 @@
+package me.ccampo.maven.git.version.strategy.script;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class PersistentScriptCacheTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private File script;
+
+    private File inputs;
+
+    @Before
+    public void setUp() throws Exception {
+        script = write("version.sh", "echo 1.0.0");
+        inputs = folder.newFolder("inputs");
+        write("inputs/a", "a");
+    }
+
+    @Test
+    public void storeAndLoad() throws Exception {
+        final PersistentScriptCache cache = new PersistentScriptCache(new File(folder.getRoot(), ".mvn/script.cache"));
+        final String fingerprint = fingerprint();
+
+        assertThat(cache.load(fingerprint)).isNull();
+        cache.store(fingerprint, "1.0.0");
+        assertThat(cache.load(fingerprint)).isEqualTo("1.0.0");
+        assertThat(cache.load("other")).isNull();
+    }
+
+    @Test
+    public void fingerprint_ChangesWithTheScriptAndItsInputs() throws Exception {
+        final String initial = fingerprint();
+        assertThat(fingerprint()).isEqualTo(initial);
+
+        write("version.sh", "echo 2.0.0");
+        final String scriptChanged = fingerprint();
+        assertThat(scriptChanged).isNotEqualTo(initial);
+
+        write("inputs/nested/b", "b");
+        final String inputAdded = fingerprint();
+        assertThat(inputAdded).isNotEqualTo(scriptChanged);
+
+        write("inputs/a", "changed");
+        assertThat(fingerprint()).isNotEqualTo(inputAdded);
+    }
+
+    @Test
+    public void fingerprint_ChangesWithTheEnvironment() throws Exception {
+        final String initial = fingerprint();
+        final String withVariable = PersistentScriptCache.fingerprint(
+                "./version.sh",
+                script,
+                folder.getRoot(),
+                null,
+                Collections.singletonMap("BUILD_NUMBER", "42"),
+                Arrays.asList(inputs, new File(folder.getRoot(), "missing"))
+        );
+        assertThat(withVariable).isNotEqualTo(initial);
+    }
+
+    @Test
+    public void fingerprint_ChangesWithTheInput() throws Exception {
+        final String withInput = PersistentScriptCache.fingerprint(
+                "./version.sh",
+                script,
+                folder.getRoot(),
+                "com.example:a\t/a\n",
+                Collections.emptyMap(),
+                Collections.emptyList()
+        );
+        assertThat(withInput).isNotEqualTo(fingerprint());
+    }
+
+    private String fingerprint() throws Exception {
+        return PersistentScriptCache.fingerprint(
+                "./version.sh",
+                script,
+                folder.getRoot(),
+                null,
+                Collections.emptyMap(),
+                Arrays.asList(inputs, new File(folder.getRoot(), "missing"))
+        );
+    }
+
+    private File write(final String path, final String content) throws Exception {
+        final File file = new File(folder.getRoot(), path);
+        file.getParentFile().mkdirs();
+        Files.write(file.toPath(), content.getBytes(StandardCharsets.UTF_8));
+        return file;
+    }
+}
@@ -0,0 +1,80 @@
+package me.ccampo.maven.git.version.strategy.script;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.util.concurrent.TimeoutException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.fail;
+import static org.junit.Assume.assumeTrue;
+
+public class ScriptProcessTest {
+
+    @Before
+    public void setUp() {
+        assumeTrue(new File("/bin/sh").canExecute());
+    }
+
+    @Test
+    public void run_ReturnsTheFirstLine() throws Exception {
+        final ScriptProcess.Result result = ScriptProcess.run(sh("echo 1.2.3; echo ignored; exit 3"), 10000);
+        assertThat(result.firstLine).isEqualTo("1.2.3");
+        assertThat(result.exitValue).isEqualTo(3);
+        assertThat(result.elapsedMillis).isGreaterThanOrEqualTo(0);
+    }
+
+    @Test
+    public void run_DrainsLargeOutput() throws Exception {
+        // Far more than any pipe buffers
+        final ScriptProcess.Result result = ScriptProcess.run(
+                sh("echo 1.2.3; i=0; while [ $i -lt 2000 ]; do printf '%01000d\\n' 0; i=$((i+1)); done"),
+                30000
+        );
+        assertThat(result.firstLine).isEqualTo("1.2.3");
+        assertThat(result.exitValue).isZero();
+    }
+
+    @Test
+    public void run_FeedsInputAndReadsTheLinesOfInterest() throws Exception {
+        final ScriptProcess.Result result = ScriptProcess.run(
+                sh("while read coordinates basedir; do echo \"1.0.0-${coordinates#*:}\"; done; echo ignored"),
+                "com.example:a /a\ncom.example:b /b\n",
+                2,
+                10000
+        );
+        assertThat(result.lines).containsExactly("1.0.0-a", "1.0.0-b");
+        assertThat(result.exitValue).isZero();
+    }
+
+    @Test
+    public void run_NoOutput() throws Exception {
+        assertThat(ScriptProcess.run(sh("true"), 0).firstLine).isNull();
+    }
+
+    @Test
+    public void run_DoesNotWaitForBackgroundProcessesHoldingTheOutput() throws Exception {
+        final long start = System.nanoTime();
+        // The background sleep inherits the output, which therefore stays open after the script exited
+        final ScriptProcess.Result result = ScriptProcess.run(sh("echo 1.2.3; sleep 30 &"), null, 2, 0);
+        assertThat(result.lines).containsExactly("1.2.3");
+        assertThat(result.exitValue).isZero();
+        assertThat(System.nanoTime() - start).isLessThan(10_000_000_000L);
+    }
+
+    @Test
+    public void run_KillsScriptsThatTakeTooLong() throws Exception {
+        final long start = System.nanoTime();
+        try {
+            ScriptProcess.run(sh("echo 1.2.3; sleep 30"), 200);
+            fail("Expected a timeout");
+        } catch (final TimeoutException e) {
+            assertThat(System.nanoTime() - start).isLessThan(10_000_000_000L);
+        }
+    }
+
+    private static ProcessBuilder sh(final String command) {
+        return new ProcessBuilder("/bin/sh", "-c", command).redirectErrorStream(true);
+    }
+}
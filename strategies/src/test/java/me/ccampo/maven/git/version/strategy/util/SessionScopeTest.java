@@ -0,0 +1,42 @@
+package me.ccampo.maven.git.version.strategy.util;
+
+import org.junit.Test;
+
+import java.lang.ref.WeakReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class SessionScopeTest {
+
+    @Test
+    public void rebind() {
+        final SessionScope scope = new SessionScope();
+        final Object first = new Object();
+        final Object second = new Object();
+
+        // Initially bound to the unknown session
+        assertThat(scope.rebind(null)).isFalse();
+        assertThat(scope.rebind(first)).isTrue();
+        assertThat(scope.rebind(first)).isFalse();
+        assertThat(scope.isBoundTo(second)).isFalse();
+        assertThat(scope.rebind(second)).isTrue();
+        assertThat(scope.rebind(null)).isTrue();
+        assertThat(scope.isBoundTo(null)).isTrue();
+    }
+
+    @Test
+    public void bind_DoesNotKeepTheSessionReachable() throws Exception {
+        final SessionScope scope = new SessionScope();
+        Object session = new Object();
+        scope.bind(session);
+        final WeakReference<Object> reference = new WeakReference<>(session);
+        session = null;
+
+        for (int i = 0; i < 50 && reference.get() != null; i++) {
+            System.gc();
+            Thread.sleep(10);
+        }
+        assertThat(reference.get()).isNull();
+        assertThat(scope.isBoundTo(new Object())).isFalse();
+    }
+}